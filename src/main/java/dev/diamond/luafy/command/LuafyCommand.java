@@ -8,6 +8,11 @@ import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import dev.diamond.luafy.script.ScriptManager;
 import dev.diamond.luafy.script.abstraction.BaseValueConversions;
 import dev.diamond.luafy.script.registry.callback.ScriptCallbackEvent;
+import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectCache;
+import dev.diamond.luafy.script.lua.LuaScriptObjects;
+import dev.diamond.luafy.script.threading.MasterScriptThread;
+import dev.diamond.luafy.script.threading.ScriptWorkerPool;
 import net.minecraft.command.CommandRegistryAccess;
 import net.minecraft.command.argument.NbtCompoundArgumentType;
 import net.minecraft.nbt.NbtCompound;
@@ -52,6 +57,8 @@ public class LuafyCommand {
                                         ).then(
                                                 literal("events").then(argument("event", StringArgumentType.string()).executes(LuafyCommand::luaCommand_listEvents))
                                         ) // lists
+                        ).then(
+                                literal("stats").executes(LuafyCommand::luaCommand_stats)
                         ) // subcommands
         ); // root
     }
@@ -70,8 +77,9 @@ public class LuafyCommand {
     }
 
     private static int luaCommand_listScripts(CommandContext<ServerCommandSource> ctx) {
-        ctx.getSource().sendFeedback(() -> Text.literal("Total: " + ScriptManager.SCRIPTS.size()), false);
-        ScriptManager.SCRIPTS.forEach((key, value) -> ctx.getSource().sendFeedback(() -> Text.literal(key), false));
+        var scripts = ScriptManager.getScripts();
+        ctx.getSource().sendFeedback(() -> Text.literal("Total: " + scripts.size()), false);
+        scripts.forEach((key, value) -> ctx.getSource().sendFeedback(() -> Text.literal(key + (value.isJvmCompiled() ? " [jvm]" : value.isBroken() ? " [failed to compile]" : value.isCompiled() ? "" : " [not compiled]")), false));
         return 1;
     }
     private static int luaCommand_listEvents(CommandContext<ServerCommandSource> ctx) {
@@ -80,13 +88,40 @@ public class LuafyCommand {
         ctx.getSource().sendFeedback(() -> Text.literal("Event: " + event.toString()), false);
 
         ctx.getSource().sendFeedback(() ->
-                        Text.literal("Subscribed Scripts (" + ScriptManager.EVENT_CALLBACKS.get(event).size() + "): "), false
+                        Text.literal("Subscribed Scripts (" + ScriptManager.EVENT_CALLBACKS.get(event).length + "): "), false
         );
 
-        ScriptManager.EVENT_CALLBACKS.get(event)
-                .forEach(subscription -> ctx.getSource()
-                        .sendFeedback(() -> Text.literal(subscription.getScriptId()), false)
-                );
+        for (var subscription : ScriptManager.EVENT_CALLBACKS.get(event)) {
+            ctx.getSource().sendFeedback(() -> Text.literal(subscription.getScriptId()), false);
+        }
+        return 1;
+    }
+    private static int luaCommand_stats(CommandContext<ServerCommandSource> ctx) {
+        MasterScriptThread thread = ScriptManager.SCRIPT_THREAD;
+        long idle = thread.getIdleMillis();
+        long busy = thread.getBusyMillis();
+        long total = Math.max(1, idle + busy);
+
+        ctx.getSource().sendFeedback(() -> Text.literal("Master Script Thread: " + (thread.isRunning() ? "running" : "stopped")), false);
+        ctx.getSource().sendFeedback(() -> Text.literal("  Queued: " + thread.getQueueDepth() + ", Executed: " + thread.getExecutedCount()), false);
+        ctx.getSource().sendFeedback(() -> Text.literal(
+                "  Busy: " + busy + "ms (" + (busy * 100 / total) + "%), Idle: " + idle + "ms (" + (idle * 100 / total) + "%)"), false);
+
+        ScriptWorkerPool pool = ScriptManager.WORKER_POOL;
+        ctx.getSource().sendFeedback(() -> Text.literal("Script Workers: " + pool.getActiveCount() + " active, " + pool.getQueueDepth() + " queued"), false);
+        pool.getAllStats().forEach((id, s) -> ctx.getSource().sendFeedback(() -> Text.literal(
+                "  " + id + ": submitted " + s.submitted.sum() + ", completed " + s.completed.sum()
+                        + ", rejected " + s.rejected.sum() + ", coalesced " + s.coalesced.sum()), false));
+
+        ScriptManager.getScripts().forEach((id, script) -> {
+            long skipped = script.getSkippedExecutions();
+            if (skipped > 0) ctx.getSource().sendFeedback(() -> Text.literal(
+                    "Script " + id + ": " + skipped + " executions skipped waiting for a free instance"), false);
+        });
+
+        ScriptObjectCache cache = IScriptObject.CACHE;
+        ctx.getSource().sendFeedback(() -> Text.literal("Script Objects (untyped tables): " + cache.size() + " live, " + cache.getCollectedCount() + " collected"), false);
+        ctx.getSource().sendFeedback(() -> Text.literal("Script Objects (typed userdata): " + LuaScriptObjects.getWrappedCount() + " created"), false);
         return 1;
     }
 
@@ -7,11 +7,14 @@ import com.google.gson.stream.JsonReader;
 import dev.diamond.luafy.Luafy;
 import dev.diamond.luafy.script.ScriptManager;
 import dev.diamond.luafy.script.registry.sandbox.Strategy;
+import dev.diamond.luafy.script.threading.ScriptWorkerPool;
 import net.fabricmc.loader.api.FabricLoader;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LuafyConfig {
 
@@ -33,12 +36,81 @@ public class LuafyConfig {
         @SerializedName("script_threading_allowed")
         public boolean scriptThreading = false;
 
+        @SerializedName("script_thread_pool_size")
+        public int threadPoolSize = 4;
+
+        @SerializedName("script_thread_pool_queue_size")
+        public int threadPoolQueueSize = 256;
+
+        @SerializedName("script_thread_pool_overflow")
+        public ScriptWorkerPool.OverflowPolicy threadPoolOverflowPolicy = ScriptWorkerPool.OverflowPolicy.DROP;
+
+        /**
+         * Scripts that may run several executions at once, each on an instance with globals of its own. Every other
+         * script has one instance, so its executions run one at a time, even on the worker pool.
+         */
+        @SerializedName("pooled_scripts")
+        public List<String> pooledScripts = new ArrayList<>();
+
+        @SerializedName("script_pool_max_size")
+        public int scriptPoolMaxSize = 8;
+
+        /**
+         * How long an execution waits for a free instance of its script before it is skipped.
+         */
+        @SerializedName("script_pool_borrow_timeout_ms")
+        public long scriptPoolBorrowTimeoutMs = 5000;
+
+        @SerializedName("script_pool_idle_timeout_seconds")
+        public int scriptPoolIdleTimeoutSeconds = 60;
+
         @SerializedName("parsed_command_modification-command_api")
         public boolean allowParsedCommandEditing = true;
 
+        @SerializedName("jvm_compiled_scripts")
+        public List<String> jvmCompiledScripts = new ArrayList<>();
+
+        @SerializedName("tiered_compilation")
+        public boolean tieredCompilation = true;
+
+        @SerializedName("tiered_compilation_call_threshold")
+        public long tieredCompilationCallThreshold = 1000;
+
+        @SerializedName("tiered_compilation_time_threshold_ms")
+        public long tieredCompilationTimeThresholdMs = 2000;
+
+        @SerializedName("bytecode_disk_cache")
+        public boolean bytecodeDiskCache = true;
+
+        @SerializedName("bytecode_disk_cache_max_age_days")
+        public int bytecodeDiskCacheMaxAgeDays = 30;
+
+        @SerializedName("lazy_script_compilation")
+        public boolean lazyScriptCompilation = false;
+
+        @SerializedName("nbt_typed_numbers")
+        public boolean nbtTypedNumbers = false;
+
+        @SerializedName("nbt_compact_number_lists")
+        public boolean nbtCompactNumberLists = false;
+
         public Strategy getStrategy() {
             return strategy;
         }
+
+        /**
+         * @return true if a script should be compiled to JVM bytecode, either because the sandbox strategy says so or because it is listed by id.
+         */
+        public boolean shouldCompileToJvm(String scriptId) {
+            return strategy.compileToJvm || jvmCompiledScripts.contains(scriptId);
+        }
+
+        /**
+         * @return how many instances a script may have at once; more than one only if it is listed in <code>pooled_scripts</code>.
+         */
+        public int getPoolSize(String scriptId) {
+            return pooledScripts.contains(scriptId) ? Math.max(1, scriptPoolMaxSize) : 1;
+        }
     }
 
     private static File getFile() {
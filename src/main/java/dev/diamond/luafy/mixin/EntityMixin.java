@@ -20,11 +20,13 @@ public abstract class EntityMixin {
 
     @Inject(method = "tick", at = @At("HEAD"))
     private void luafy$invokeTickingCallbacks(CallbackInfo ci) {
-        if (age == 0) {
+        // checked here so nothing is allocated per entity per tick while nothing is subscribed
+        if (age == 0 && ScriptManager.hasEventSubscribers(ScriptCallbacks.SPAWN)) {
             ScriptManager.executeEventCallbacks(ScriptCallbacks.SPAWN,
                     () -> getCommandSource().withLevel(2), null);
         }
 
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.TICK_ENTITY)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.TICK_ENTITY,
                 () -> getCommandSource().withLevel(2), ctx -> {
                     ctx.put("age", age);
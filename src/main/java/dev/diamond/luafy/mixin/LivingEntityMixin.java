@@ -48,6 +48,7 @@ public abstract class LivingEntityMixin extends Entity {
 
     @Inject(method = "damage", at = @At("HEAD"))
     private void luafy$invokeOnHurtCallbacks(DamageSource source, float amount, CallbackInfoReturnable<Boolean> cir) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.ON_ENTITY_HURTS)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.ON_ENTITY_HURTS,
                 () -> getThis().getCommandSource().withLevel(2), ctx -> {
             buildContext(ctx);
@@ -58,12 +59,14 @@ public abstract class LivingEntityMixin extends Entity {
 
     @Inject(method = "onKilledBy", at = @At("HEAD"))
     private void luafy$invokeOnDieCallbacks(LivingEntity adversary, CallbackInfo ci) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.ON_ENTITY_DIES)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.ON_ENTITY_DIES,
                 () -> getThis().getCommandSource().withLevel(2), this::buildContext);
     }
 
     @Inject(method = "tryAttack", at = @At("HEAD"))
     private void luafy$invokeTryAttackCallbacks(Entity target, CallbackInfoReturnable<Boolean> cir) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.TRY_ATTACK)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.TRY_ATTACK,
                 () -> getThis().getCommandSource().withLevel(2), this::buildContext);
     }
@@ -71,6 +74,7 @@ public abstract class LivingEntityMixin extends Entity {
 
     @Inject(method = "addStatusEffect(Lnet/minecraft/entity/effect/StatusEffectInstance;)Z", at = @At("HEAD"))
     private void luafy$invokeAddEffectCallbacks(StatusEffectInstance effect, CallbackInfoReturnable<Boolean> cir) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.EFFECT_APPLIED)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.EFFECT_APPLIED,
                 () -> getThis().getCommandSource().withLevel(2), ctx -> {
             buildContextNoAttacker(ctx);
@@ -82,6 +86,7 @@ public abstract class LivingEntityMixin extends Entity {
 
     @Inject(method = "removeStatusEffect", at = @At("HEAD"))
     private void luafy$invokeRemoveEffectCallbacks(StatusEffect effect, CallbackInfoReturnable<Boolean> cir) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.EFFECT_LOST)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.EFFECT_LOST,
                 () -> getThis().getCommandSource().withLevel(2), ctx -> {
                     buildContextNoAttacker(ctx);
@@ -91,6 +96,7 @@ public abstract class LivingEntityMixin extends Entity {
 
     @Inject(method = "eatFood", at = @At("HEAD"))
     private void luafy$invokeEatCallbacks(World world, ItemStack stack, CallbackInfoReturnable<ItemStack> cir) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.EATS)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.EATS,
                 () -> getThis().getCommandSource().withLevel(2), ctx -> {
                     buildContextNoAttacker(ctx);
@@ -100,6 +106,7 @@ public abstract class LivingEntityMixin extends Entity {
 
     @Inject(method = "heal", at = @At("HEAD"))
     private void luafy$invokeRegenerateCallbacks(float amount, CallbackInfo ci) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.REGENERATES_HEALTH)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.REGENERATES_HEALTH,
                 () -> getThis().getCommandSource().withLevel(2), ctx -> {
                     buildContextNoAttacker(ctx);
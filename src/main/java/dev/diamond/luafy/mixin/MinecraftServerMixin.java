@@ -82,4 +82,9 @@ public abstract class MinecraftServerMixin {
     private void luafy$invokeServerCloseCallbacks(CallbackInfo ci) {
         ScriptManager.executeEventCallbacks(ScriptCallbacks.SERVER_CLOSES, this::getCommandSource, null);
     }
+
+    @Inject(method = "shutdown", at = @At("TAIL"))
+    private void luafy$stopScriptThread(CallbackInfo ci) {
+        ScriptManager.stopScriptThread();
+    }
 }
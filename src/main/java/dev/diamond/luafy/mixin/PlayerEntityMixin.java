@@ -21,6 +21,7 @@ public abstract class PlayerEntityMixin extends LivingEntity {
 
     @Inject(method = "addExhaustion", at = @At("HEAD"))
     private void luafy$invokeExhaustEventCallbacks(float exhaustion, CallbackInfo ci) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.EXHAUST)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.EXHAUST, () -> this.getCommandSource().withLevel(2), v -> {
             v.put("player", new PlayerEntityScriptObject((ServerPlayerEntity)(Object)this));
             v.put("amount", exhaustion);
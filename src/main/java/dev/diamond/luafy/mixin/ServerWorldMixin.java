@@ -25,6 +25,7 @@ public abstract class ServerWorldMixin {
 
     @Inject(method = "emitGameEvent", at = @At("HEAD"))
     private void luafy$invokeGameEventCallbacks(GameEvent event, Vec3d emitterPos, GameEvent.Emitter emitter, CallbackInfo ci) {
+        if (!ScriptManager.hasEventSubscribers(ScriptCallbacks.ON_GAME_EVENT)) return;
         ScriptManager.executeEventCallbacks(ScriptCallbacks.ON_GAME_EVENT, () -> this.getServer().getCommandSource().withLevel(2), (v) -> {
             v.put("emitter_entity", emitter.sourceEntity() == null ? null : new EntityScriptObject(emitter.sourceEntity()));
             v.put("event_id", Registries.GAME_EVENT.getId(event).toString());
@@ -38,11 +38,13 @@ public class CallbackScriptResourceLoader implements SimpleSynchronousResourceRe
                     ScriptCallbacks.CallbackScriptBean bean = GSON.fromJson(s, ScriptCallbacks.CallbackScriptBean.class);
 
                     ScriptManager.CALLBACK_FILES.add(bean);
-                    ScriptManager.populateEventCallbacks();
                 } catch (Exception e) {
                     Luafy.LOGGER.error("Error occurred while loading Callbacks " + id.toString(), e);
                 }
             }
         }
+
+        // Publish Phase - once every file has been read
+        ScriptManager.populateEventCallbacks();
     }
 }
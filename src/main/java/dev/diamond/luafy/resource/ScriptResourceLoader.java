@@ -2,19 +2,31 @@ package dev.diamond.luafy.resource;
 
 import dev.diamond.luafy.Luafy;
 import dev.diamond.luafy.script.ScriptManager;
-import dev.diamond.luafy.script.abstraction.lang.AbstractScript;
-import dev.diamond.luafy.script.lua.LuaScript;
+import dev.diamond.luafy.script.abstraction.lang.PooledScript;
 import dev.diamond.luafy.script.registry.lang.ScriptLanguage;
-import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import dev.diamond.luafy.util.LuafyUtil;
+import net.fabricmc.fabric.api.resource.SimpleResourceReloadListener;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
-public class ScriptResourceLoader implements SimpleSynchronousResourceReloadListener {
+/**
+ * Reads every script off-thread, compiles them in parallel, and publishes the complete set at once when the reload is
+ * applied. Scripts from before the reload stay available until then. <br>
+ *
+ * Every script gets fresh sandboxed instances, so a reload resets script state and applies the current config. A script
+ * whose content hash is unchanged since the last reload is still not compiled again: its language reuses the compiled
+ * code it cached under that hash.
+ */
+public class ScriptResourceLoader implements SimpleResourceReloadListener<Map<String, PooledScript>> {
 
     public static final String PATH = "luafy/scripts";
 
@@ -24,47 +36,113 @@ public class ScriptResourceLoader implements SimpleSynchronousResourceReloadList
     }
 
     @Override
-    public void reload(ResourceManager manager) {
-        // Clear Cache Phase
-        ScriptManager.SCRIPTS.clear();
-
+    public CompletableFuture<Map<String, PooledScript>> load(ResourceManager manager, Profiler profiler, Executor executor) {
         // Read Phase
+        return CompletableFuture.supplyAsync(() -> readSources(manager), executor).thenCompose(sources -> {
+            Map<String, PooledScript> previous = ScriptManager.getScripts();
+            long start = System.nanoTime();
+
+            // Compile Phase
+            List<CompletableFuture<LoadedScript>> futures = sources.stream()
+                    .map(source -> CompletableFuture.supplyAsync(() -> compile(source, previous.get(source.scriptId())), ForkJoinPool.commonPool()))
+                    .toList();
+
+            return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(v -> {
+                Map<String, PooledScript> scripts = new HashMap<>();
+                int unchanged = 0;
+                for (var future : futures) {
+                    LoadedScript loaded = future.join();
+                    if (loaded.script() == null) continue;
+
+                    scripts.put(loaded.script().name, loaded.script());
+                    if (loaded.unchanged()) unchanged++;
+                }
+
+                long removed = previous.keySet().stream().filter(id -> !scripts.containsKey(id)).count();
+                // unchanged scripts still get new sandboxed instances; only their compiled code comes from the language's cache
+                Luafy.LOGGER.info("Loaded {} scripts in {}ms: {} unchanged, {} new or changed, {} removed",
+                        scripts.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), unchanged, scripts.size() - unchanged, removed);
+                return scripts;
+            });
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> apply(Map<String, PooledScript> scripts, ResourceManager manager, Profiler profiler, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            // Publish Phase
+            ScriptManager.publishScripts(scripts);
+
+            // Cleanup Phase
+            for (ScriptLanguage<?> language : Luafy.SCRIPT_LANG_REGISTRY) {
+                language.onScriptsReloaded(scripts.values());
+            }
+        }, executor);
+    }
+
+
+    private static List<ScriptSource> readSources(ResourceManager manager) {
+        List<ScriptSource> sources = new ArrayList<>();
+
         for (Identifier id : manager.findResources(PATH, path -> true).keySet()) {
             if (manager.getResource(id).isPresent()) {
-
-                String ext = "";
                 try (InputStream stream = manager.getResource(id).get().getInputStream()) {
                     // Consume stream
                     byte[] bytes = stream.readAllBytes();
                     String s = new String(bytes, StandardCharsets.UTF_8);
 
-                    // get script
-                    ext = id.getPath().split("\\.")[1];
-                    var script = loadScript(ext, s);
-
-                    if (script != null) {
-                        int pfLen = (PATH + "/").length();
-                        String fixedPath = id.getPath().substring(pfLen);
-                        fixedPath = fixedPath.substring(0, fixedPath.length() - ext.length() - 1);
-                        String newId = id.getNamespace() + ":" + fixedPath;
-                        script.name = newId;
-                        ScriptManager.SCRIPTS.put(newId, script);
-                    } else {
-                        Luafy.LOGGER.warn("There was no registered script language using the file extension {}!", ext);
-                    }
+                    // get id
+                    String ext = id.getPath().split("\\.")[1];
+                    int pfLen = (PATH + "/").length();
+                    String fixedPath = id.getPath().substring(pfLen);
+                    fixedPath = fixedPath.substring(0, fixedPath.length() - ext.length() - 1);
+                    String newId = id.getNamespace() + ":" + fixedPath;
+
+                    sources.add(new ScriptSource(id, newId, ext, s));
                 } catch (Exception e) {
-                    Luafy.LOGGER.error("Error occurred while loading '" + ext + "' Script " + id.toString(), e);
+                    Luafy.LOGGER.error("Error occurred while reading Script " + id.toString(), e);
                 }
             }
         }
+
+        return sources;
     }
 
-    public static AbstractScript<?> loadScript(String extension, String scriptContent) {
+    private static LoadedScript compile(ScriptSource source, PooledScript previous) {
+        String contentHash = LuafyUtil.hashContent(source.content());
+        boolean unchanged = previous != null && previous.contentHash.equals(contentHash) && isLanguageOf(previous.language, source.extension());
+
+        try {
+            var script = loadScript(source.scriptId(), source.extension(), source.content(), contentHash);
+
+            if (script == null) {
+                Luafy.LOGGER.warn("There was no registered script language using the file extension {}!", source.extension());
+            }
+            return new LoadedScript(script, unchanged);
+        } catch (Exception e) {
+            Luafy.LOGGER.error("Error occurred while loading '" + source.extension() + "' Script " + source.resourceId().toString(), e);
+            return new LoadedScript(null, false);
+        }
+    }
+
+    public static PooledScript loadScript(String name, String extension, String scriptContent) {
+        return loadScript(name, extension, scriptContent, LuafyUtil.hashContent(scriptContent));
+    }
+
+    public static PooledScript loadScript(String name, String extension, String scriptContent, String contentHash) {
         for (ScriptLanguage<?> s : Luafy.SCRIPT_LANG_REGISTRY) {
-            if (Arrays.asList(s.getFileExtensions()).contains(extension)) {
-                return s.readScript(scriptContent);
+            if (isLanguageOf(s, extension)) {
+                return new PooledScript(name, s, scriptContent, contentHash);
             }
         }
         return null;
     }
+
+    private static boolean isLanguageOf(ScriptLanguage<?> language, String extension) {
+        return Arrays.asList(language.getFileExtensions()).contains(extension);
+    }
+
+
+    private record ScriptSource(Identifier resourceId, String scriptId, String extension, String content) {}
+    private record LoadedScript(PooledScript script, boolean unchanged) {}
 }
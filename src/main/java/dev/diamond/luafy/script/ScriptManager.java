@@ -3,14 +3,18 @@ package dev.diamond.luafy.script;
 import com.google.gson.JsonObject;
 import com.mojang.brigadier.ParseResults;
 import dev.diamond.luafy.config.LuafyConfig;
-import dev.diamond.luafy.script.abstraction.lang.AbstractScript;
+import dev.diamond.luafy.script.abstraction.lang.PooledScript;
+import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
 import dev.diamond.luafy.script.abstraction.ScriptExecution;
 import dev.diamond.luafy.script.api.obj.entity.EntityScriptObject;
 import dev.diamond.luafy.script.registry.callback.CallbackEventSubscription;
+import dev.diamond.luafy.script.registry.callback.EventSubscriptions;
 import dev.diamond.luafy.script.registry.callback.ScriptCallbackEvent;
 import dev.diamond.luafy.script.registry.callback.ScriptCallbacks;
 import dev.diamond.luafy.script.registry.sandbox.Strategy;
-import dev.diamond.luafy.util.HexId;
+import dev.diamond.luafy.script.threading.MasterScriptThread;
+import dev.diamond.luafy.script.threading.ScriptWorkerPool;
+import dev.diamond.luafy.util.HexIdMap;
 import dev.diamond.luafy.util.RemovalMarkedRunnable;
 import net.minecraft.server.command.ServerCommandSource;
 import org.jetbrains.annotations.Nullable;
@@ -24,7 +28,9 @@ public class ScriptManager {
 
 
     public enum ExplicitType {
-        DOUBLE("NUM"), STRING("STR"), BOOLEAN("BOOL"), OBJECT("OBJ"), LIST("LIST");
+        DOUBLE("NUM"), STRING("STR"), BOOLEAN("BOOL"), OBJECT("OBJ"), LIST("LIST"),
+        INT_ARRAY("INT_ARR"), LONG_ARRAY("LONG_ARR"), BYTE_ARRAY("BYTE_ARR"),
+        INT("INT"), LONG("LONG");
 
         public String str;
         ExplicitType(String str) {
@@ -41,59 +47,44 @@ public class ScriptManager {
 
     // Caches for data used BY scripts
     public static class ScriptCaches {
-        public static HashMap<HexId, ParseResults<ServerCommandSource>> PREPARSED_COMMANDS = new HashMap<>();
-        public static HashMap<HexId, List<EntityScriptObject>> GROUPED_ENTITIES = new HashMap<>();
+        public static final HexIdMap<ParseResults<ServerCommandSource>> PREPARSED_COMMANDS = new HexIdMap<>();
+        public static final HexIdMap<List<EntityScriptObject>> GROUPED_ENTITIES = new HexIdMap<>();
     }
 
     // Script-Related Resource Caches
-    public static final HashMap<String, AbstractScript<?>> SCRIPTS = new HashMap<>();
+    private static volatile Map<String, PooledScript> scripts = Map.of();
     public static final Collection<ScriptCallbacks.CallbackScriptBean> CALLBACK_FILES = new ArrayList<>();
     public static final HashMap<String, Strategy> SANDBOX_STRATEGIES = new HashMap<>();
     public static final HashMap<String, byte[]> STATIC_RESOURCES = new HashMap<>();
 
     // Callbacks
-    public static final HashMap<ScriptCallbackEvent, Collection<CallbackEventSubscription>> EVENT_CALLBACKS = new HashMap<>();
+    public static final EventSubscriptions EVENT_CALLBACKS = new EventSubscriptions();
 
     // Script Threading
-    public static final ConcurrentLinkedQueue<ScriptExecution> SCRIPT_THREAD_EXECUTIONS = new ConcurrentLinkedQueue<>();
+    public static final MasterScriptThread SCRIPT_THREAD = new MasterScriptThread();
+    public static final ScriptWorkerPool WORKER_POOL = new ScriptWorkerPool();
     public static final ConcurrentLinkedQueue<RemovalMarkedRunnable> SERVER_THREAD_EXECUTIONS = new ConcurrentLinkedQueue<>();
 
-    private static final Thread scriptThread = new Thread(null, () -> {
-       while (true) {
-           if (!SCRIPT_THREAD_EXECUTIONS.isEmpty()) {
-               SCRIPT_THREAD_EXECUTIONS.forEach(ScriptExecution::execute);
-           }
-           SCRIPT_THREAD_EXECUTIONS.removeIf(ScriptExecution::isMarkedForRemoval);
-       }
-    }, "Master Script Thread");
-
 
     // Script Executors
     public static boolean executeCurrentThread(String script, ServerCommandSource src, HashMap<?, ?> ctx, String caller) {
-        if (!hasScript(script)) return false;
+        PooledScript pooled = getScript(script);
+        if (pooled == null) return false;
 
         if (ctx == null) ctx = new HashMap<>();
         ((HashMap<String, Object>)ctx).put("caller", caller);
 
-        SCRIPTS.get(script).execute(src, ctx);
+        pooled.execute(src, ctx);
         return true;
     }
     public static boolean execute(String script, ServerCommandSource src, HashMap<?, ?> ctx, boolean ownThread, String caller) {
 
         if (LuafyConfig.GLOBAL_CONFIG.scriptThreading) {
             if (ownThread) {
-
-                Thread t = new Thread(null, () -> {
-                    executeCurrentThread(script, src, ctx, caller);
-                }, "Script Thread");
-
-                t.setDaemon(true);
-                t.start();
-
-                return true;
+                return WORKER_POOL.submit(script, () -> executeCurrentThread(script, src, ctx, caller));
             }
         }
-        SCRIPT_THREAD_EXECUTIONS.add(ScriptExecution.of(script, src, ctx, caller));
+        SCRIPT_THREAD.submit(ScriptExecution.of(script, src, ctx, caller));
         return true;
     }
     public static boolean execute(String script, ServerCommandSource src, boolean ownThread, String caller) {
@@ -102,29 +93,52 @@ public class ScriptManager {
 
     // Script Cache
     public static boolean hasScript(String script) {
-        return SCRIPTS.containsKey(script);
+        return scripts.containsKey(script);
     }
-    public static AbstractScript<?> getScript(String script) {
-        return SCRIPTS.get(script);
+    public static PooledScript getScript(String script) {
+        return scripts.get(script);
+    }
+    public static Map<String, PooledScript> getScripts() {
+        return scripts;
+    }
+
+    /**
+     * Replaces every loaded script at once; a lookup sees either the old set or the new one, never a partial one.
+     */
+    public static void publishScripts(Map<String, PooledScript> newScripts) {
+        scripts = Collections.unmodifiableMap(new HashMap<>(newScripts));
     }
 
     // Callbacks
     public static void populateEventCallbacks() {
-        EVENT_CALLBACKS.clear();
-
-        for (var v : ScriptCallbackEvent.getAll()) EVENT_CALLBACKS.put(v, new ArrayList<>());
+        HashMap<ScriptCallbackEvent, List<CallbackEventSubscription>> subscriptions = new HashMap<>();
 
         for (var c : CALLBACK_FILES) {
             for (ScriptCallbacks.CallbackEventBean eventCallback : c.eventCallbacks) {
                 ScriptCallbackEvent event = ScriptCallbackEvent.fromStringId(eventCallback.id);
                 if (event != null) {
-                    EVENT_CALLBACKS.get(event).addAll(eventCallback.scriptIds.stream().map(s ->
-                            CallbackEventSubscription.of(s, eventCallback.ownThread)).toList());
+                    var list = subscriptions.computeIfAbsent(event, e -> new ArrayList<>());
+                    for (String s : eventCallback.scriptIds) {
+                        list.add(CallbackEventSubscription.of(s, eventCallback.ownThread));
+                    }
                 }
             }
         }
+
+        // published once, so events dispatched during a reload see the old subscribers or the new ones, never a mix
+        EVENT_CALLBACKS.replaceAll(subscriptions);
+    }
+
+    /**
+     * Cheap enough to call on every entity tick; hot callers should check this before building anything for
+     * {@link #executeEventCallbacks}.
+     */
+    public static boolean hasEventSubscribers(ScriptCallbackEvent event) {
+        return EVENT_CALLBACKS.hasSubscribers(event);
     }
     public static void executeEventCallbacks(ScriptCallbackEvent event, Supplier<ServerCommandSource> src, @Nullable Consumer<HashMap<String, Object>> ctxBuilder) {
+        CallbackEventSubscription[] subscribers = EVENT_CALLBACKS.get(event);
+        if (subscribers.length == 0) return;
 
         HashMap<String, Object> ctx;
         if (ctxBuilder != null) {
@@ -134,23 +148,31 @@ public class ScriptManager {
             ctx = null;
         }
 
-        if (!ScriptManager.EVENT_CALLBACKS.containsKey(event)) return;
-
-        ScriptManager.EVENT_CALLBACKS.get(event)
-                .forEach(s -> ScriptManager.execute(s.getScriptId(), src.get(), ctx, s.usesOwnThread(), "$server"));
+        for (CallbackEventSubscription s : subscribers) {
+            ScriptManager.execute(s.getScriptId(), src.get(), ctx, s.usesOwnThread(), "$server");
+        }
     }
 
     public static void subscribeEvent(ScriptCallbackEvent event, String scriptId, boolean usesOwnThread) {
-        EVENT_CALLBACKS.get(event).add(CallbackEventSubscription.of(scriptId, usesOwnThread));
+        EVENT_CALLBACKS.add(event, CallbackEventSubscription.of(scriptId, usesOwnThread));
     }
     public static void unsubscribeEvent(ScriptCallbackEvent event, String scriptId) {
-        EVENT_CALLBACKS.get(event).removeIf(e -> Objects.equals(e.getScriptId(), scriptId));
+        EVENT_CALLBACKS.removeIf(event, e -> Objects.equals(e.getScriptId(), scriptId));
     }
 
 
     // Threading
     public static void startScriptThread() {
-        scriptThread.start();
+        SCRIPT_THREAD.start();
+    }
+    public static void stopScriptThread() {
+        SCRIPT_THREAD.stop();
+        WORKER_POOL.shutdown();
+
+        // don't keep the stopped server's entities and worlds reachable
+        IScriptObject.CACHE.clear();
+        ScriptCaches.PREPARSED_COMMANDS.clear();
+        ScriptCaches.GROUPED_ENTITIES.clear();
     }
 
 }
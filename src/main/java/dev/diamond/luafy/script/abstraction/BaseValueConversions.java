@@ -4,6 +4,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import dev.diamond.luafy.config.LuafyConfig;
 import dev.diamond.luafy.script.ScriptManager;
 import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import net.minecraft.nbt.*;
@@ -41,9 +42,11 @@ public class BaseValueConversions {
     public static AbstractBaseValue<?, ?> explicit_nbtToBase(NbtElement nbt, ScriptManager.ExplicitType type, BaseValueAdapter adapter) {
         return switch (type) {
             case DOUBLE -> adapter.adapt(((AbstractNbtNumber) nbt).doubleValue());
+            case INT -> adapter.adapt(((AbstractNbtNumber) nbt).intValue());
+            case LONG -> adapter.adapt(((AbstractNbtNumber) nbt).longValue());
             case STRING -> adapter.adapt(nbt.asString());
             case BOOLEAN -> adapter.adapt(((NbtByte) nbt).byteValue());
-            case LIST -> adapter.adapt(nbtListToBase(((AbstractNbtList<?>) nbt), adapter));
+            case LIST, INT_ARRAY, LONG_ARRAY, BYTE_ARRAY -> adapter.adapt(nbtListToBase(((AbstractNbtList<?>) nbt), adapter));
             case OBJECT -> adapter.adapt(nbtObjToBase(((NbtCompound) nbt), adapter));
         };
     }
@@ -72,8 +75,16 @@ public class BaseValueConversions {
     }
 
     public static NbtElement implicit_baseToNbt(AbstractBaseValue<?, ?> value) {
+        NbtElement direct = value.toNbt(null);
+        if (direct != null) return direct;
+
         ScriptManager.ExplicitType t;
 
+        if (LuafyConfig.GLOBAL_CONFIG.nbtTypedNumbers) {
+            if (value.isInt()) return NbtInt.of(value.asInt());
+            if (value.isLong()) return NbtLong.of(value.asLong());
+            if (value.isDouble()) return numberToNbt(value.asDouble());
+        }
 
         if      (value.isDouble())      t = DOUBLE;
         else if (value.isFloat())       t = DOUBLE;
@@ -83,27 +94,124 @@ public class BaseValueConversions {
         else if (value.isMap())         t = OBJECT;
         else if (value.isCollection())  t = LIST;
         else if (value.isString())      t = STRING;
-        else throw new RuntimeException("Couldn't convert base value of " + value.value + " to NBT.");
+        else throw new RuntimeException("Couldn't convert base value of " + value.getValue() + " to NBT.");
+
+        if (t == LIST && LuafyConfig.GLOBAL_CONFIG.nbtCompactNumberLists) {
+            NbtElement compact = compactNumberList((Collection<AbstractBaseValue<?, ?>>) value.asCollection());
+            if (compact != null) return compact;
+        }
 
         return explicit_baseToNbt(t, value);
     }
+
+    /**
+     * Encodes a number as the narrowest type that holds it exactly: whole numbers that fit in an int become
+     * <code>NbtInt</code>, other whole numbers that fit in a long become <code>NbtLong</code>, and everything else stays
+     * an <code>NbtDouble</code>. With <code>nbt_typed_numbers</code> off, every number is an <code>NbtDouble</code>.
+     */
+    public static NbtElement numberToNbt(double d) {
+        if (!LuafyConfig.GLOBAL_CONFIG.nbtTypedNumbers) return NbtDouble.of(d);
+        return numberToNbt(d, widenNumberType(NbtElement.INT_TYPE, d));
+    }
+
+    /**
+     * @param type <code>NbtElement.INT_TYPE</code>, <code>LONG_TYPE</code> or <code>DOUBLE_TYPE</code>.
+     */
+    public static NbtElement numberToNbt(double d, byte type) {
+        return switch (type) {
+            case NbtElement.INT_TYPE -> NbtInt.of((int) d);
+            case NbtElement.LONG_TYPE -> NbtLong.of((long) d);
+            default -> NbtDouble.of(d);
+        };
+    }
+
+    /**
+     * NBT lists can only hold one element type, so a list of numbers has to be written with the widest type any of them
+     * needs. Start with <code>NbtElement.INT_TYPE</code> and widen it with every number of the list.
+     *
+     * @return the narrowest of <code>INT_TYPE</code>, <code>LONG_TYPE</code> and <code>DOUBLE_TYPE</code> that holds
+     * <code>d</code> and everything <code>current</code> holds.
+     */
+    public static byte widenNumberType(byte current, double d) {
+        if (current == NbtElement.DOUBLE_TYPE || d != Math.rint(d)) return NbtElement.DOUBLE_TYPE;
+        if (d >= Integer.MIN_VALUE && d <= Integer.MAX_VALUE) return current;
+        if (d >= Long.MIN_VALUE && d < (double) Long.MAX_VALUE) return NbtElement.LONG_TYPE;
+        return NbtElement.DOUBLE_TYPE;
+    }
+
+    /**
+     * @return an <code>NbtIntArray</code> or <code>NbtLongArray</code> if every element is a whole number, otherwise null.
+     */
+    public static NbtElement compactNumberList(Collection<AbstractBaseValue<?, ?>> collection) {
+        if (collection.isEmpty()) return null;
+
+        boolean fitsInt = true;
+        for (var k : collection) {
+            if (!k.isLong()) return null;
+            if (!k.isInt()) fitsInt = false;
+        }
+
+        return fitsInt
+                ? new NbtIntArray(collection.stream().mapToInt(AbstractBaseValue::asInt).toArray())
+                : new NbtLongArray(collection.stream().mapToLong(AbstractBaseValue::asLong).toArray());
+    }
     public static NbtElement explicit_baseToNbt(ScriptManager.ExplicitType type, AbstractBaseValue<?, ?> value) {
+        NbtElement direct = value.toNbt(type);
+        if (direct != null) return direct;
+
         return switch (type) {
             case DOUBLE ->  NbtDouble.of(value.asDouble());
+            case INT -> NbtInt.of(value.asInt());
+            case LONG -> NbtLong.of(value.asLong());
             case STRING -> NbtString.of(value.asString());
             case BOOLEAN -> NbtByte.of(value.asBoolean());
             case OBJECT -> mapToCompound((HashMap<AbstractBaseValue<?, ?>, AbstractBaseValue<?, ?>>) value.asMap());
             case LIST -> collectionToList((Collection<AbstractBaseValue<?, ?>>)value.asCollection());
+            case INT_ARRAY -> new NbtIntArray(value.asCollection().stream().mapToInt(AbstractBaseValue::asInt).toArray());
+            case LONG_ARRAY -> new NbtLongArray(value.asCollection().stream().mapToLong(AbstractBaseValue::asLong).toArray());
+            case BYTE_ARRAY -> collectionToByteArray((Collection<AbstractBaseValue<?, ?>>)value.asCollection());
         };
     }
 
     public static NbtList collectionToList(Collection<AbstractBaseValue<?,?>> collection) {
         NbtList nbt = new NbtList();
+
+        byte numberType = numberListType(collection);
+        if (numberType != NbtElement.END_TYPE) {
+            for (var k : collection) {
+                nbt.add(numberType == NbtElement.LONG_TYPE && k.isLong() ? NbtLong.of(k.asLong()) : numberToNbt(k.asDouble(), numberType));
+            }
+            return nbt;
+        }
+
         for (var k : collection) {
             nbt.add(implicit_baseToNbt(k));
         }
         return nbt;
     }
+
+    /**
+     * @return the one number type every element can be written as, or <code>END_TYPE</code> if they aren't all numbers
+     * or <code>nbt_typed_numbers</code> is off.
+     */
+    private static byte numberListType(Collection<AbstractBaseValue<?,?>> collection) {
+        if (!LuafyConfig.GLOBAL_CONFIG.nbtTypedNumbers) return NbtElement.END_TYPE;
+
+        byte type = NbtElement.INT_TYPE;
+        for (var k : collection) {
+            if (!(k.isInt() || k.isLong() || k.isDouble() || k.isFloat())) return NbtElement.END_TYPE;
+            type = widenNumberType(type, k.asDouble());
+        }
+        return type;
+    }
+    public static NbtByteArray collectionToByteArray(Collection<AbstractBaseValue<?,?>> collection) {
+        byte[] bytes = new byte[collection.size()];
+        int i = 0;
+        for (var k : collection) {
+            bytes[i++] = (byte) k.asInt();
+        }
+        return new NbtByteArray(bytes);
+    }
     public static NbtCompound mapToCompound(HashMap<AbstractBaseValue<?, ?>, AbstractBaseValue<?, ?>> map) {
         NbtCompound nbt = new NbtCompound();
         for (var kvp : map.entrySet()) {
@@ -7,20 +7,18 @@ import java.util.HashMap;
 
 public abstract class ScriptExecution {
 
-    protected boolean markedForRemoval = false;
     private ScriptExecution() {}
     public abstract void execute();
-    public boolean isMarkedForRemoval() {
-        return markedForRemoval;
-    }
 
     public static ScriptExecution of(String scriptId, ServerCommandSource source, HashMap<?, ?> ctx, String caller) {
+        return of(() -> ScriptManager.executeCurrentThread(scriptId, source, ctx, caller));
+    }
+
+    public static ScriptExecution of(Runnable runnable) {
         return new ScriptExecution() {
             @Override
             public void execute() {
-
-                ScriptManager.executeCurrentThread(scriptId, source, ctx, caller);
-                this.markedForRemoval = true;
+                runnable.run();
             }
         };
     }
@@ -1,13 +1,16 @@
 package dev.diamond.luafy.script.abstraction.lang;
 
 import com.google.gson.JsonElement;
+import dev.diamond.luafy.script.ScriptManager;
 import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.BaseValueConversions;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
 import dev.diamond.luafy.script.abstraction.obj.ScriptObjectProvider;
+import dev.diamond.luafy.script.nbt.LazyNbtElement;
 import dev.diamond.luafy.script.nbt.OptionallyExplicitNbtElement;
 import dev.diamond.luafy.util.HexId;
 import net.minecraft.nbt.NbtElement;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -19,7 +22,8 @@ public abstract class AbstractBaseValue
                 BaseValue extends AbstractBaseValue<?, ?>
                 > {
 
-    public LangValue value;
+    // final, so the wrappers languages share between scripts (see LuaBaseValue#of) can't be changed by one of them
+    protected final LangValue value;
 
     public AbstractBaseValue(LangValue value) {
         this.value = value;
@@ -72,9 +76,6 @@ public abstract class AbstractBaseValue
     public LangValue getValue() { return value; }
 
 
-    public void adaptAndSetOrThrow(Object obj) {
-        value = (LangValue) adapt(obj).value;
-    }
     public BaseValue adapt(Object obj) {
 
         if (obj instanceof Enum<?> enumVal) {
@@ -86,6 +87,9 @@ public abstract class AbstractBaseValue
         }
 
         else if (obj instanceof OptionallyExplicitNbtElement nbt) {
+            BaseValue direct = adaptNbt(nbt.nbt(), nbt.type());
+            if (direct != null) return direct;
+
             if (nbt.isExplicit()) {
                 assert nbt.type() != null;
                 return (BaseValue) BaseValueConversions.explicit_nbtToBase(nbt.nbt(), nbt.type(), this::adapt);
@@ -94,7 +98,14 @@ public abstract class AbstractBaseValue
             }
         }
 
+        else if (obj instanceof LazyNbtElement lazy) {
+            return adaptLazyNbt(lazy.nbt());
+        }
+
         else if (obj instanceof NbtElement nbt) {
+            BaseValue direct = adaptNbt(nbt, null);
+            if (direct != null) return direct;
+
             return (BaseValue) BaseValueConversions.implicit_nbtToBase(nbt, this::adapt);
         }
 
@@ -134,6 +145,7 @@ public abstract class AbstractBaseValue
      * <ul>
      *     <li>AbstractBaseValue (no adaptation needed)</li>
      *     <li>OptionallyExplicitNbtElement</li>
+     *     <li>LazyNbtElement</li>
      *     <li>NbtElement</li>
      *     <li>IScriptObject</li>
      *     <li>JsonElement</li>
@@ -147,10 +159,47 @@ public abstract class AbstractBaseValue
     public abstract BaseValue adaptAbstract(Object obj);
 
 
+    /**
+     * Optional fast path for converting NBT straight to a language value, skipping the intermediate maps and collections
+     * of {@link BaseValueConversions}. Must give the same result as the generic conversion.
+     *
+     * @param type explicit type to read the element as, or null to read it implicitly.
+     * @return the converted value, or null to use the generic conversion.
+     */
+    @Nullable
+    protected BaseValue adaptNbt(NbtElement nbt, @Nullable ScriptManager.ExplicitType type) {
+        return null;
+    }
+
+    /**
+     * Adapts NBT as a read-only value whose entries are only converted when the script reads them. Languages without
+     * such a type convert it all at once, as with any other NBT.
+     *
+     * @see LazyNbtElement
+     */
+    protected BaseValue adaptLazyNbt(@Nullable NbtElement nbt) {
+        return nbt == null ? adapt(null) : adapt(nbt);
+    }
+
+    /**
+     * Optional fast path for converting this value straight to NBT; the counterpart of
+     * {@link AbstractBaseValue#adaptNbt(NbtElement, ScriptManager.ExplicitType)}.
+     *
+     * @param type explicit type to write the value as, or null to write it implicitly.
+     * @return the converted element, or null to use the generic conversion.
+     */
+    @Nullable
+    public NbtElement toNbt(@Nullable ScriptManager.ExplicitType type) {
+        return null;
+    }
+
+
     /**
      * add a script object (set of functions acting as an object) to the script. <br>
      *
      * Add a HexId to whatever your language representation of this is; use it as a key to cache this object in <code>IScriptObject.CACHE</code>.
+     * If the object has a {@link dev.diamond.luafy.script.abstraction.obj.ScriptObjectType}, the language can instead hold
+     * the object itself and share one method table per type (see LuaBaseValue).
      *
      * @see IScriptObject
      * @param obj provider
@@ -159,7 +208,8 @@ public abstract class AbstractBaseValue
 
 
     /**
-     * Implementation should fetch from IScriptObject.CACHE using key set from addObject.
+     * Implementation should fetch from IScriptObject.CACHE using key set from addObject, or unwrap the object if it was
+     * held directly.
      *
      * @see AbstractBaseValue#addObject(ScriptObjectProvider)
      * @return Optional containing an IScriptObject, if the type is one. Otherwise, empty.
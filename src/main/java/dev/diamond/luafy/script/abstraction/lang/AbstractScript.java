@@ -53,5 +53,22 @@ public abstract class AbstractScript
 
     public abstract BaseValue getNullBaseValue();
 
+    /**
+     * @return true if this instance runs as compiled JVM bytecode rather than being interpreted.
+     */
+    public boolean isJvmCompiled() {
+        return false;
+    }
+
+    /**
+     * Switches this instance over to code compiled by {@link ScriptLanguage#compileToJvm(String, String)}, keeping its
+     * globals. Must not be called while the instance is executing.
+     *
+     * @return true if this instance runs as JVM bytecode afterwards.
+     */
+    public boolean promoteToJvm(String contentHash) {
+        return isJvmCompiled();
+    }
+
     public abstract ScriptLanguage<?> getLanguage();
 }
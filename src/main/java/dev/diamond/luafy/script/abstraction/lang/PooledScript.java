@@ -0,0 +1,252 @@
+package dev.diamond.luafy.script.abstraction.lang;
+
+import dev.diamond.luafy.Luafy;
+import dev.diamond.luafy.config.LuafyConfig;
+import dev.diamond.luafy.script.registry.lang.ScriptLanguage;
+import dev.diamond.luafy.util.LuafyUtil;
+import net.minecraft.server.command.ServerCommandSource;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A loaded script, and a pool of sandboxed instances of it. <br>
+ *
+ * Every execution borrows an instance of its own, so executions running on different threads never share execution
+ * state. By default a script has exactly one instance, so its globals carry over from one execution to the next like
+ * they always have, but executions of the same script on different threads take turns instead of running at the same
+ * time. An execution that can't get an instance within <code>script_pool_borrow_timeout_ms</code> is skipped, logged
+ * and counted; a script invoking itself runs on the instance its thread already has. <br>
+ *
+ * Scripts listed in <code>pooled_scripts</code> opt in to more instances: the pool grows on demand up to
+ * <code>script_pool_max_size</code>, after which executions wait for an instance to be returned. Each instance has
+ * globals of its own, so which values an execution sees depends on the instance it got; only list scripts that don't
+ * keep state in globals. Instances left unused for longer than <code>script_pool_idle_timeout_seconds</code> are
+ * dropped, always keeping at least one. <br>
+ *
+ * Invocations and time spent executing are counted. Once either crosses its tiered compilation threshold, the script is
+ * compiled to JVM bytecode in the background (if its language supports that). After that, every instance switches to
+ * the compiled code the next time it is borrowed, keeping its globals, and new instances start out compiled;
+ * executions that are already running finish on the code they started with. <br>
+ *
+ * With <code>lazy_script_compilation</code> enabled, nothing is compiled until the script is first executed. If that
+ * fails, the script is marked as broken and every later execution does nothing until the next reload.
+ */
+public class PooledScript {
+
+    public final String name;
+    public final ScriptLanguage<?> language;
+    public final String contentHash;
+    private final String scriptString;
+    private volatile boolean jvmCompilationRequested;
+    private volatile boolean jvmCompiled = false;
+    private volatile boolean compiled = false;
+    private volatile RuntimeException compileError = null;
+
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong executionNanos = new AtomicLong();
+    private final AtomicBoolean promotionStarted = new AtomicBoolean(false);
+
+    private final ConcurrentLinkedDeque<IdleInstance> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger instanceCount = new AtomicInteger();
+    private final Semaphore permits;
+    private final ThreadLocal<AbstractScript<?>> heldByThread = new ThreadLocal<>();
+    private final LongAdder skippedExecutions = new LongAdder();
+
+    public volatile HashMap<?, ?> outContextMap;
+
+    public PooledScript(String name, ScriptLanguage<?> language, String scriptString) {
+        this(name, language, scriptString, LuafyUtil.hashContent(scriptString));
+    }
+
+    public PooledScript(String name, ScriptLanguage<?> language, String scriptString, String contentHash) {
+        this.name = name;
+        this.language = language;
+        this.scriptString = scriptString;
+        this.contentHash = contentHash;
+        this.permits = new Semaphore(LuafyConfig.GLOBAL_CONFIG.getPoolSize(name), true);
+        this.jvmCompilationRequested = language.supportsJvmCompilation() && LuafyConfig.GLOBAL_CONFIG.shouldCompileToJvm(name);
+
+        // unless lazy, create the first instance immediately so errors are reported while loading
+        if (!LuafyConfig.GLOBAL_CONFIG.lazyScriptCompilation) {
+            idle.addFirst(new IdleInstance(createInstance(), System.nanoTime()));
+        }
+    }
+
+    public AbstractBaseValue<?, ?> execute(ServerCommandSource source, HashMap<?, ?> contextMap) {
+        // already reported when compiling failed; don't compile (and fail) again on every tick or event
+        if (compileError != null) return getNullBaseValue();
+
+        // a script invoking itself keeps running on the instance its thread already has, like it did before pooling
+        AbstractScript<?> held = heldByThread.get();
+        if (held != null) return held.execute(source, contextMap);
+
+        AbstractScript<?> instance = borrow();
+        if (instance == null) {
+            skippedExecutions.increment();
+            Luafy.LOGGER.warn("Skipped an execution of script {}: no instance was free after waiting {}ms",
+                    name, LuafyConfig.GLOBAL_CONFIG.scriptPoolBorrowTimeoutMs);
+            return getNullBaseValue();
+        }
+
+        heldByThread.set(instance);
+        long start = System.nanoTime();
+        try {
+            instance.outContextMap = null;
+            var result = instance.execute(source, contextMap);
+            if (instance.outContextMap != null) outContextMap = instance.outContextMap;
+            return result;
+        } finally {
+            long calls = invocations.incrementAndGet();
+            long nanos = executionNanos.addAndGet(System.nanoTime() - start);
+            heldByThread.remove();
+            release(instance);
+
+            if (shouldPromote(calls, nanos)) promote();
+        }
+    }
+
+    public AbstractBaseValue<?, ?> getNullBaseValue() {
+        return language.getNullBaseValue();
+    }
+
+    public int getInstanceCount() {
+        return instanceCount.get();
+    }
+
+    /**
+     * @return how many executions were skipped because every instance stayed busy for longer than
+     * <code>script_pool_borrow_timeout_ms</code>.
+     */
+    public long getSkippedExecutions() {
+        return skippedExecutions.sum();
+    }
+
+    /**
+     * @return false if the script hasn't been compiled yet because it was loaded lazily and never executed.
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * @return true if compiling this script failed, so it won't run until the next reload.
+     */
+    public boolean isBroken() {
+        return compileError != null;
+    }
+
+    /**
+     * @return true once instances of this script run as JVM bytecode.
+     */
+    public boolean isJvmCompiled() {
+        return jvmCompiled;
+    }
+
+    public long getInvocationCount() {
+        return invocations.get();
+    }
+    public long getExecutionMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(executionNanos.get());
+    }
+
+
+    private boolean shouldPromote(long calls, long nanos) {
+        if (jvmCompilationRequested || promotionStarted.get() || !language.supportsJvmCompilation()) return false;
+
+        var config = LuafyConfig.GLOBAL_CONFIG;
+        if (!config.tieredCompilation) return false;
+
+        return calls >= config.tieredCompilationCallThreshold
+                || TimeUnit.NANOSECONDS.toMillis(nanos) >= config.tieredCompilationTimeThresholdMs;
+    }
+
+    private void promote() {
+        if (!promotionStarted.compareAndSet(false, true)) return;
+
+        CompletableFuture.supplyAsync(() -> language.compileToJvm(scriptString, contentHash)).whenComplete((success, e) -> {
+            if (e != null) {
+                Luafy.LOGGER.warn("Background compilation of script {} failed", name, e);
+                return;
+            }
+            if (!success) return;
+
+            // instances pick the compiled code up as they are borrowed, see borrow()
+            jvmCompilationRequested = true;
+            Luafy.LOGGER.info("Script {} was promoted to JVM bytecode after {} invocations ({}ms)", name, getInvocationCount(), getExecutionMillis());
+        });
+    }
+
+
+    /**
+     * @return an instance, or null if none became free within <code>script_pool_borrow_timeout_ms</code>.
+     */
+    private AbstractScript<?> borrow() {
+        try {
+            if (!permits.tryAcquire(LuafyConfig.GLOBAL_CONFIG.scriptPoolBorrowTimeoutMs, TimeUnit.MILLISECONDS)) return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        IdleInstance i = idle.pollFirst();
+        if (i != null) {
+            AbstractScript<?> instance = i.script();
+            if (jvmCompilationRequested && !instance.isJvmCompiled() && instance.promoteToJvm(contentHash)) jvmCompiled = true;
+            return instance;
+        }
+
+        try {
+            return createInstance();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(AbstractScript<?> instance) {
+        long now = System.nanoTime();
+        idle.addFirst(new IdleInstance(instance, now));
+
+        // most recently used instances are at the head, so the ones that have gone cold collect at the tail
+        long timeout = TimeUnit.SECONDS.toNanos(LuafyConfig.GLOBAL_CONFIG.scriptPoolIdleTimeoutSeconds);
+        IdleInstance oldest;
+        while (instanceCount.get() > 1 && (oldest = idle.peekLast()) != null && now - oldest.releasedAt() > timeout) {
+            if (idle.removeLastOccurrence(oldest)) instanceCount.decrementAndGet();
+        }
+
+        permits.release();
+    }
+
+    private AbstractScript<?> createInstance() {
+        AbstractScript<?> instance;
+        try {
+            instance = jvmCompilationRequested
+                    ? language.readJvmCompiledScript(scriptString, contentHash)
+                    : language.readScript(scriptString, contentHash);
+        } catch (RuntimeException e) {
+            // an instance compiled before means the source is fine, so this wasn't a compile error
+            if (!compiled) {
+                compileError = e;
+                Luafy.LOGGER.error("Script {} failed to compile and won't run until the next reload", name);
+            }
+            throw e;
+        }
+        instance.name = name;
+        // only ever goes from false to true, so an instance created while the script is being promoted can't undo it
+        if (instance.isJvmCompiled()) jvmCompiled = true;
+        compiled = true;
+        instanceCount.incrementAndGet();
+        return instance;
+    }
+
+
+    private record IdleInstance(AbstractScript<?> script, long releasedAt) {}
+}
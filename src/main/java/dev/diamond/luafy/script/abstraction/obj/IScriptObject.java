@@ -2,17 +2,33 @@ package dev.diamond.luafy.script.abstraction.obj;
 
 import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.util.HexId;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 
-@FunctionalInterface
 public interface IScriptObject {
 
-    HashMap<HexId, IScriptObject> CACHE = new HashMap<>();
+    ScriptObjectCache CACHE = new ScriptObjectCache();
 
-    void addFunctions(HashMap<String, AdaptableFunction> set);
+    /**
+     * @return the shared method table for this object's class, or null if this object only has
+     * {@link #addFunctions(HashMap)}.
+     */
+    @Nullable
+    default ScriptObjectType<?> getType() {
+        return null;
+    }
+
+    /**
+     * The functions added should refer to this object, as bound methods do; that is what keeps it in {@link #CACHE} for
+     * as long as a script holds them.
+     */
+    default void addFunctions(HashMap<String, AdaptableFunction> set) {
+        ScriptObjectType<?> type = getType();
+        if (type != null) type.bindAll(this, set);
+    }
 
     static IScriptObject get(HexId hexid) {
-        return hexid.getHashed(CACHE);
+        return CACHE.get(hexid);
     }
 }
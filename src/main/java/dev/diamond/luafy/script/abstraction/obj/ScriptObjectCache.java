@@ -0,0 +1,84 @@
+package dev.diamond.luafy.script.abstraction.obj;
+
+import dev.diamond.luafy.util.HexId;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Script objects handed to scripts, keyed by the {@link HexId} the script holds on to. <br>
+ *
+ * Objects are held weakly. The functions a script object adds to its language representation refer to the object, so
+ * it stays reachable for as long as the script can still get at it; once nothing refers to it anymore, it is collected
+ * and its entry is dropped the next time an object is added. An id whose object has been collected can't be held by
+ * any script, so a lookup never gives null for an object a script still has. <br>
+ *
+ * Only objects without a {@link ScriptObjectType} end up here, since those are still handed to scripts as tables of
+ * functions. Objects that have a type are given to Lua as userdata holding the object itself and are never cached, so
+ * {@link #size()} and {@link #getCollectedCount()} say nothing about them.
+ */
+public class ScriptObjectCache {
+
+    private final Long2ObjectOpenHashMap<Ref> map = new Long2ObjectOpenHashMap<>();
+    private final ReferenceQueue<IScriptObject> collectedRefs = new ReferenceQueue<>();
+
+    private final LongAdder collected = new LongAdder();
+
+    public synchronized HexId add(IScriptObject obj) {
+        expunge();
+
+        HexId id;
+        do {
+            id = HexId.random();
+        } while (map.containsKey(id.longId));
+        map.put(id.longId, new Ref(id.longId, obj, collectedRefs));
+        return id;
+    }
+
+    public synchronized IScriptObject get(HexId id) {
+        Ref ref = map.get(id.longId);
+        return ref == null ? null : ref.get();
+    }
+
+    public synchronized void remove(HexId id) {
+        map.remove(id.longId);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        while (collectedRefs.poll() != null);
+    }
+
+    public synchronized int size() {
+        expunge();
+        return map.size();
+    }
+    public long getCollectedCount() {
+        return collected.sum();
+    }
+
+
+    private void expunge() {
+        Reference<? extends IScriptObject> r;
+        while ((r = collectedRefs.poll()) != null) {
+            Ref ref = (Ref) r;
+            // the id may have been removed already
+            if (map.get(ref.id) == ref) {
+                map.remove(ref.id);
+                collected.increment();
+            }
+        }
+    }
+
+    private static class Ref extends WeakReference<IScriptObject> {
+        private final long id;
+
+        private Ref(long id, IScriptObject obj, ReferenceQueue<IScriptObject> queue) {
+            super(obj, queue);
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package dev.diamond.luafy.script.abstraction.obj;
+
+import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The functions every script object of one class has, built once and shared by all of its instances. <br>
+ *
+ * Each method takes the object it was called on as <code>self</code> instead of capturing it, so the table doesn't
+ * depend on any instance. A type can start from the methods of a parent type, which is how subclasses like
+ * {@link dev.diamond.luafy.script.api.obj.entity.LivingEntityScriptObject} inherit the entity functions. <br>
+ *
+ * Types can also define {@link Operator operators}, for languages that let objects be used with <code>+</code>,
+ * <code>*</code> and so on. An operator gets both operands as they were written, so either one may be the object. <br>
+ *
+ * <pre>{@code
+ * public static final ScriptObjectType<FooScriptObject> TYPE = ScriptObjectType.builder("foo", FooScriptObject.class)
+ *         .method("get_bar", (self, args) -> self.foo.getBar())
+ *         .build();
+ * }</pre>
+ *
+ * @see IScriptObject#getType()
+ */
+public final class ScriptObjectType<T extends IScriptObject> {
+
+    private final String name;
+    private final Class<T> clazz;
+    private final Map<String, ScriptMethod<? super T>> methods;
+    private final Map<Operator, AdaptableFunction> operators;
+
+    private ScriptObjectType(String name, Class<T> clazz, Map<String, ScriptMethod<? super T>> methods, Map<Operator, AdaptableFunction> operators) {
+        this.name = name;
+        this.clazz = clazz;
+        this.methods = Collections.unmodifiableMap(methods);
+        this.operators = Collections.unmodifiableMap(operators);
+    }
+
+    public static <T extends IScriptObject> Builder<T> builder(String name, Class<T> clazz) {
+        return new Builder<>(name, clazz);
+    }
+    public static <P extends IScriptObject, T extends P> Builder<T> builder(String name, Class<T> clazz, ScriptObjectType<P> parent) {
+        Builder<T> builder = new Builder<>(name, clazz);
+        builder.methods.putAll(parent.methods);
+        builder.operators.putAll(parent.operators);
+        return builder;
+    }
+
+    public String getName() {
+        return name;
+    }
+    public Set<String> getMethodNames() {
+        return methods.keySet();
+    }
+    public boolean hasMethod(String method) {
+        return methods.containsKey(method);
+    }
+
+    @Nullable
+    public AdaptableFunction getOperator(Operator operator) {
+        return operators.get(operator);
+    }
+    public Set<Operator> getOperators() {
+        return operators.keySet();
+    }
+
+    /**
+     * @return the method called <code>method</code> with <code>self</code> filled in, or null if there is no such method.
+     */
+    @Nullable
+    public AdaptableFunction bind(String method, IScriptObject self) {
+        ScriptMethod<? super T> m = methods.get(method);
+        if (m == null) return null;
+
+        T t = clazz.cast(self);
+        return args -> m.call(t, args);
+    }
+
+    /**
+     * For operators, which get their operands as they were written: <code>value</code> as a <code>clazz</code>, or null
+     * if it is anything else, like a number or another type of object.
+     */
+    @Nullable
+    public static <O extends IScriptObject> O operand(AbstractBaseValue<?, ?> value, Class<O> clazz) {
+        return value.asScriptObjectIfPresent().filter(clazz::isInstance).map(clazz::cast).orElse(null);
+    }
+
+    /**
+     * @return the error an operator should throw when it doesn't support the types of its operands.
+     */
+    public static IllegalArgumentException unsupportedOperands(Operator operator, AbstractBaseValue<?, ?>... args) {
+        StringBuilder types = new StringBuilder();
+        for (var arg : args) {
+            if (!types.isEmpty()) types.append(" and ");
+            types.append(describe(arg));
+        }
+        return new IllegalArgumentException("Unsupported operand types for " + operator.name().toLowerCase() + ": " + types);
+    }
+
+    private static String describe(AbstractBaseValue<?, ?> value) {
+        var obj = value.asScriptObjectIfPresent();
+        if (obj.isPresent()) {
+            ScriptObjectType<?> type = obj.get().getType();
+            return type == null ? "object" : type.getName();
+        }
+        if (value.isNull()) return "nil";
+        if (value.isDouble()) return "number";
+        if (value.isString()) return "string";
+        if (value.isBool()) return "boolean";
+        return "value";
+    }
+
+    /**
+     * Puts every method bound to <code>self</code> into <code>set</code>, the same as the old per-instance
+     * {@link IScriptObject#addFunctions(HashMap)} did.
+     */
+    public void bindAll(IScriptObject self, HashMap<String, AdaptableFunction> set) {
+        T t = clazz.cast(self);
+        for (var kvp : methods.entrySet()) {
+            ScriptMethod<? super T> m = kvp.getValue();
+            set.put(kvp.getKey(), args -> m.call(t, args));
+        }
+    }
+
+
+    public enum Operator {
+        ADD,
+        SUB,
+        MUL,
+        DIV,
+        /** Unary minus. */
+        UNM,
+        TO_STRING
+    }
+
+    @FunctionalInterface
+    public interface ScriptMethod<T> {
+        Object call(T self, AbstractBaseValue<?, ?>... args);
+    }
+
+    public static class Builder<T extends IScriptObject> {
+        private final String name;
+        private final Class<T> clazz;
+        private final LinkedHashMap<String, ScriptMethod<? super T>> methods = new LinkedHashMap<>();
+        private final EnumMap<Operator, AdaptableFunction> operators = new EnumMap<>(Operator.class);
+
+        private Builder(String name, Class<T> clazz) {
+            this.name = name;
+            this.clazz = clazz;
+        }
+
+        public Builder<T> method(String method, ScriptMethod<? super T> function) {
+            methods.put(method, function);
+            return this;
+        }
+
+        public Builder<T> operator(Operator operator, AdaptableFunction function) {
+            operators.put(operator, function);
+            return this;
+        }
+
+        public ScriptObjectType<T> build() {
+            return new ScriptObjectType<>(name, clazz, new LinkedHashMap<>(methods), new EnumMap<>(operators));
+        }
+    }
+}
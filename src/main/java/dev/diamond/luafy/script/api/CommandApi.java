@@ -36,34 +36,31 @@ public class CommandApi extends AbstractScriptApi {
 
         f.put("parse", args -> {
             var parsed = parseCommand(args[0].asString(), script.source);
-            var hexid = HexId.makeNewUnique(ScriptManager.ScriptCaches.PREPARSED_COMMANDS.keySet());
-            ScriptManager.ScriptCaches.PREPARSED_COMMANDS.put(hexid, parsed);
-
-            return hexid;
+            return ScriptManager.ScriptCaches.PREPARSED_COMMANDS.add(parsed);
         });
 
         f.put("get_preparsed_argument", args -> {
             var hi = HexId.fromString(args[0].asString());
-            var parsed = hi.getHashed(ScriptManager.ScriptCaches.PREPARSED_COMMANDS);
+            var parsed = ScriptManager.ScriptCaches.PREPARSED_COMMANDS.get(hi);
             return getArgument(parsed, args[1].asString());
         });
 
         f.put("modify_preparsed_argument", args -> {
             var hi = HexId.fromString(args[0].asString());
-            var parsed = hi.getHashed(ScriptManager.ScriptCaches.PREPARSED_COMMANDS);
+            var parsed = ScriptManager.ScriptCaches.PREPARSED_COMMANDS.get(hi);
             modifyArgument(parsed, args[1].asString(), args[2]);
             return null;
         });
 
         f.put("execute_preparsed", args -> {
             var hi = HexId.fromString(args[0].asString());
-            var parse = hi.getHashed(ScriptManager.ScriptCaches.PREPARSED_COMMANDS);
+            var parse = ScriptManager.ScriptCaches.PREPARSED_COMMANDS.get(hi);
             return executeCommand(parse, script.source);
         });
 
         f.put("free_preparsed", args -> {
             var hi = HexId.fromString(args[0].asString());
-            hi.removeHashed(ScriptManager.ScriptCaches.PREPARSED_COMMANDS);
+            ScriptManager.ScriptCaches.PREPARSED_COMMANDS.remove(hi);
             return null;
         });
 
@@ -5,6 +5,7 @@ import dev.diamond.luafy.script.abstraction.api.AbstractScriptApi;
 import dev.diamond.luafy.script.abstraction.lang.AbstractScript;
 import dev.diamond.luafy.script.api.obj.math.Matrix4fScriptObject;
 import dev.diamond.luafy.script.api.obj.math.QuaternionfScriptObject;
+import dev.diamond.luafy.script.api.obj.math.Vec3dBufferScriptObject;
 import dev.diamond.luafy.script.api.obj.math.Vec3dScriptObject;
 import net.minecraft.util.math.Vec3d;
 import org.joml.Matrix4f;
@@ -23,6 +24,8 @@ public class ObjectsApi extends AbstractScriptApi {
 
         f.put("vec3d", args -> new Vec3dScriptObject(new Vec3d(args[0].asDouble(), args[1].asDouble(), args[2].asDouble())));
         f.put("vec3d_u", args -> new Vec3dScriptObject(new Vec3d(args[0].asDouble(), args[0].asDouble(), args[0].asDouble())));
+        f.put("vec3d_buffer", args -> new Vec3dBufferScriptObject(args[0].asInt()));
+        f.put("vec3d_buffer_of", args -> Vec3dBufferScriptObject.of(args[0].asCollection()));
 
         f.put("quaternion", args -> new QuaternionfScriptObject(new Quaternionf(args[0].asDouble(), args[1].asDouble(), args[2].asDouble(), args[3].asDouble())));
         f.put("quaternion_u", args -> new QuaternionfScriptObject(new Quaternionf(args[0].asDouble(), args[0].asDouble(), args[0].asDouble(), args[0].asDouble())));
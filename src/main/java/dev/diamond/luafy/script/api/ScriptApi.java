@@ -4,6 +4,7 @@ import dev.diamond.luafy.script.ScriptManager;
 import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.api.AbstractScriptApi;
 import dev.diamond.luafy.script.abstraction.lang.AbstractScript;
+import dev.diamond.luafy.script.abstraction.lang.PooledScript;
 import dev.diamond.luafy.script.registry.callback.ScriptCallbackEvent;
 import net.minecraft.server.command.ServerCommandSource;
 
@@ -29,7 +30,7 @@ public class ScriptApi extends AbstractScriptApi {
 
 
             ServerCommandSource src = script.source;
-            AbstractScript<?> s = ScriptManager.getScript(id);
+            PooledScript s = ScriptManager.getScript(id);
             ScriptManager.execute(id, src, ctx, thread, script.name);
             return s.outContextMap == null ? null : s.outContextMap;
         });
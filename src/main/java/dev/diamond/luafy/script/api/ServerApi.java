@@ -10,6 +10,8 @@ import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import dev.diamond.luafy.script.abstraction.lang.AbstractScript;
 import dev.diamond.luafy.script.api.obj.entity.EntityScriptObject;
 import dev.diamond.luafy.script.api.obj.entity.PlayerEntityScriptObject;
+import dev.diamond.luafy.script.api.obj.math.Matrix4fScriptObject;
+import dev.diamond.luafy.script.api.obj.math.Vec3dBufferScriptObject;
 import dev.diamond.luafy.script.api.obj.math.Vec3dScriptObject;
 import dev.diamond.luafy.script.api.obj.minecraft.WorldScriptObject;
 import dev.diamond.luafy.util.HexId;
@@ -29,13 +31,17 @@ import net.minecraft.scoreboard.ScoreboardObjective;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.AffineTransformation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Position;
 import net.minecraft.util.math.Vec3d;
 import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 public class ServerApi extends AbstractScriptApi {
     public ServerApi(AbstractScript<?> script) {
@@ -84,16 +90,44 @@ public class ServerApi extends AbstractScriptApi {
 
         f.put("group_entities", args -> {
             var entities = selectEntities(true, args[0].asString()).stream().map(EntityScriptObject::new).toList();
-            var hexid = HexId.makeNewUnique(ScriptManager.ScriptCaches.GROUPED_ENTITIES.keySet());
-            ScriptManager.ScriptCaches.GROUPED_ENTITIES.put(hexid, entities);
-            return hexid;
+            return ScriptManager.ScriptCaches.GROUPED_ENTITIES.add(entities);
         });
-        f.put("get_entity_group", args -> HexId.fromString(args[0].asString()).getHashed(ScriptManager.ScriptCaches.GROUPED_ENTITIES));
+        f.put("get_entity_group", args -> ScriptManager.ScriptCaches.GROUPED_ENTITIES.get(HexId.fromString(args[0].asString())));
         f.put("remove_entity_group", args -> {
             ScriptManager.ScriptCaches.GROUPED_ENTITIES.remove(HexId.fromString(args[0].asString()));
             return null;
         });
 
+        // bulk updates; see applyToEntities
+        f.put("teleport_entities", args -> {
+            double[] positions = packVectors(args[1]);
+            applyToEntities(args[0], (entity, i) -> entity.teleport(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]), positions.length / 3);
+            return null;
+        });
+        f.put("set_display_transformations", args -> {
+            List<Matrix4f> matrices = new ArrayList<>();
+            Matrix4fScriptObject single = args[1].asScriptObjectAssertive(Matrix4fScriptObject.class);
+            if (single != null) matrices.add(new Matrix4f(single.get()));
+            else for (var value : args[1].asCollection()) matrices.add(new Matrix4f(value.asScriptObjectAssertive(Matrix4fScriptObject.class).get()));
+
+            applyToEntities(args[0], (entity, i) -> {
+                if (entity instanceof DisplayEntity display)
+                    display.setTransformation(new AffineTransformation(matrices.get(single != null ? 0 : i)));
+            }, single != null ? Integer.MAX_VALUE : matrices.size());
+            return null;
+        });
+        f.put("set_display_translations", args -> {
+            double[] translations = packVectors(args[1]);
+            applyToEntities(args[0], (entity, i) -> {
+                if (entity instanceof DisplayEntity display) {
+                    AffineTransformation current = DisplayEntity.getTransformation(display.getDataTracker());
+                    Vector3f translation = new Vector3f((float) translations[i * 3], (float) translations[i * 3 + 1], (float) translations[i * 3 + 2]);
+                    display.setTransformation(new AffineTransformation(translation, current.getLeftRotation(), current.getScale(), current.getRightRotation()));
+                }
+            }, translations.length / 3);
+            return null;
+        });
+
         f.put("get_world_time", args -> script.source.getWorld().getTime());
         f.put("get_days", args -> script.source.getWorld().getTimeOfDay() / 24000L);
 
@@ -127,6 +161,72 @@ public class ServerApi extends AbstractScriptApi {
         return script.source.getServer().getPlayerManager().getPlayer(UUID.fromString(uuid));
     }
 
+    /**
+     * Resolves <code>target</code> (an entity group id, or a list of entity objects or UUID strings) now, then runs
+     * <code>action</code> on every entity in one pass on the server thread, right away if this is the server thread and
+     * otherwise before the next tick. Changes made in one pass go out in the same tracker update, so each entity sends
+     * at most one update per tick however many entities are changed. <br>
+     *
+     * Entities given by UUID are looked up on the server thread; ones that can't be found are skipped.
+     *
+     * @param count how many entities there is data for; more targets than this is an error.
+     */
+    private void applyToEntities(AbstractBaseValue<?, ?> target, ObjIntConsumer<Entity> action, int count) {
+        List<Object> targets = new ArrayList<>();
+        if (target.isString()) {
+            List<EntityScriptObject> group = ScriptManager.ScriptCaches.GROUPED_ENTITIES.get(HexId.fromString(target.asString()));
+            if (group == null) throw new IllegalArgumentException("No entity group " + target.asString());
+            for (EntityScriptObject e : group) targets.add(e.entity);
+        } else {
+            for (var value : target.asCollection()) {
+                if (value.isString()) targets.add(UUID.fromString(value.asString()));
+                else targets.add(value.asScriptObjectAssertive(EntityScriptObject.class).entity);
+            }
+        }
+
+        if (targets.size() > count)
+            throw new IllegalArgumentException("Got " + targets.size() + " entities but data for only " + count);
+
+        ServerWorld world = script.source.getWorld();
+        Runnable apply = () -> {
+            for (int i = 0; i < targets.size(); i++) {
+                Entity entity = targets.get(i) instanceof UUID uuid ? world.getEntity(uuid) : (Entity) targets.get(i);
+                if (entity != null) action.accept(entity, i);
+            }
+        };
+
+        if (script.source.getServer().isOnThread()) apply.run();
+        else ScriptManager.SERVER_THREAD_EXECUTIONS.add(RemovalMarkedRunnable.of(apply));
+    }
+
+    /**
+     * Copies a vector buffer or a list of vectors into one array of x, y, z triples, so the script can keep changing
+     * its own vectors after the call.
+     */
+    private static double[] packVectors(AbstractBaseValue<?, ?> value) {
+        Vec3dBufferScriptObject buffer = value.asScriptObjectAssertive(Vec3dBufferScriptObject.class);
+        if (buffer != null) {
+            double[] packed = new double[buffer.size() * 3];
+            for (int i = 0; i < buffer.size(); i++) {
+                packed[i * 3] = buffer.getX(i);
+                packed[i * 3 + 1] = buffer.getY(i);
+                packed[i * 3 + 2] = buffer.getZ(i);
+            }
+            return packed;
+        }
+
+        var vectors = value.asCollection();
+        double[] packed = new double[vectors.size() * 3];
+        int i = 0;
+        for (var v : vectors) {
+            Vec3d vec = v.asScriptObjectAssertive(Vec3dScriptObject.class).get();
+            packed[i++] = vec.x;
+            packed[i++] = vec.y;
+            packed[i++] = vec.z;
+        }
+        return packed;
+    }
+
     private List<? extends Entity> selectEntities(boolean multiple, String selector) {
         EntityArgumentType argType = multiple ? EntityArgumentType.entities() : EntityArgumentType.entity();
         try {
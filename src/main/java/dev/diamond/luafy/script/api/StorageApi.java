@@ -6,6 +6,7 @@ import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.BaseValueConversions;
 import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import dev.diamond.luafy.script.abstraction.lang.AbstractScript;
+import dev.diamond.luafy.script.nbt.LazyNbtElement;
 import dev.diamond.luafy.script.nbt.OptionallyExplicitNbtElement;
 import dev.diamond.luafy.script.api.obj.util.StorageScriptObject;
 import net.minecraft.command.DataCommandStorage;
@@ -29,6 +30,8 @@ public class StorageApi extends AbstractScriptApi {
 
         f.put("read_implicit", args -> readStorage(args, true));
 
+        f.put("read_lazy", args -> new LazyNbtElement(getDataStorage(script.source, args[0]).get(args[1].asString())));
+
         f.put("write", args -> {
             writeStorage(args);
             return null;
@@ -74,10 +77,12 @@ public class StorageApi extends AbstractScriptApi {
         AbstractBaseValue<?, ?> arg_id   = params[0];
         AbstractBaseValue<?, ?> arg_path = params[1];
         AbstractBaseValue<?, ?> arg_data = params[2];
+        ScriptManager.ExplicitType type = params.length > 3 ? ScriptManager.ExplicitType.get(params[3].asString()) : null;
 
 
         NbtCompound cmpnd = getDataStorage(script.source, arg_id);
-        BaseValueConversions.implicit_putBaseToNbt(cmpnd, arg_path.asString(), arg_data);
+        if (type == null) BaseValueConversions.implicit_putBaseToNbt(cmpnd, arg_path.asString(), arg_data);
+        else BaseValueConversions.explicit_putBaseToNbt(cmpnd, arg_path.asString(), type, arg_data);
         writeDataStorage(script.source, arg_id, cmpnd);
     }
 
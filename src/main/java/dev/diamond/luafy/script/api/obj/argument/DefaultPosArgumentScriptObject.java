@@ -1,11 +1,9 @@
 package dev.diamond.luafy.script.api.obj.argument;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import net.minecraft.command.argument.DefaultPosArgument;
 import net.minecraft.command.argument.LookingPosArgument;
 
-import java.util.HashMap;
-
 public class DefaultPosArgumentScriptObject implements ICommandArgumentScriptObject {
 
     private final DefaultPosArgument arg;
@@ -14,23 +12,27 @@ public class DefaultPosArgumentScriptObject implements ICommandArgumentScriptObj
         this.arg = arg;
     }
 
+    public static final ScriptObjectType<DefaultPosArgumentScriptObject> TYPE = ScriptObjectType.builder("default_pos_argument", DefaultPosArgumentScriptObject.class)
+            .method("get_x_relative", (self, args) -> self.arg.isXRelative())
+            .method("get_y_relative", (self, args) -> self.arg.isYRelative())
+            .method("get_z_relative", (self, args) -> self.arg.isZRelative())
+
+            .method("set_x_relative", (self, args) -> { self.arg.x.relative = args[0].asBoolean(); return null; })
+            .method("set_y_relative", (self, args) -> { self.arg.y.relative = args[0].asBoolean(); return null; })
+            .method("set_z_relative", (self, args) -> { self.arg.z.relative = args[0].asBoolean(); return null; })
+
+            .method("get_x", (self, args) -> self.arg.x.value)
+            .method("get_y", (self, args) -> self.arg.y.value)
+            .method("get_z", (self, args) -> self.arg.z.value)
+
+            .method("set_x", (self, args) -> { self.arg.x.value = args[0].asDouble(); return null; })
+            .method("set_y", (self, args) -> { self.arg.y.value = args[0].asDouble(); return null; })
+            .method("set_z", (self, args) -> { self.arg.z.value = args[0].asDouble(); return null; })
+            .build();
+
     @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_x_relative", args -> arg.isXRelative());
-        set.put("get_y_relative", args -> arg.isYRelative());
-        set.put("get_z_relative", args -> arg.isZRelative());
-
-        set.put("set_x_relative", args -> { arg.x.relative = args[0].asBoolean(); return null; });
-        set.put("set_y_relative", args -> { arg.y.relative = args[0].asBoolean(); return null; });
-        set.put("set_z_relative", args -> { arg.z.relative = args[0].asBoolean(); return null; });
-
-        set.put("get_x", args -> arg.x.value);
-        set.put("get_y", args -> arg.y.value);
-        set.put("get_z", args -> arg.z.value);
-
-        set.put("set_x", args -> { arg.x.value = args[0].asDouble(); return null; });
-        set.put("set_y", args -> { arg.y.value = args[0].asDouble(); return null; });
-        set.put("set_z", args -> { arg.z.value = args[0].asDouble(); return null; });
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
     @Override
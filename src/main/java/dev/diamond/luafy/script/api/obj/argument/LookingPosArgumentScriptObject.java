@@ -1,12 +1,10 @@
 package dev.diamond.luafy.script.api.obj.argument;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import net.minecraft.command.argument.CoordinateArgument;
 import net.minecraft.command.argument.DefaultPosArgument;
 import net.minecraft.command.argument.LookingPosArgument;
 
-import java.util.HashMap;
-
 public class LookingPosArgumentScriptObject implements ICommandArgumentScriptObject {
 
     private final LookingPosArgument arg;
@@ -15,15 +13,19 @@ public class LookingPosArgumentScriptObject implements ICommandArgumentScriptObj
         this.arg = arg;
     }
 
+    public static final ScriptObjectType<LookingPosArgumentScriptObject> TYPE = ScriptObjectType.builder("looking_pos_argument", LookingPosArgumentScriptObject.class)
+            .method("get_x", (self, args) -> self.arg.x)
+            .method("get_y", (self, args) -> self.arg.y)
+            .method("get_z", (self, args) -> self.arg.z)
+
+            .method("set_x", (self, args) -> { self.arg.x = args[0].asDouble(); return null; })
+            .method("set_y", (self, args) -> { self.arg.y = args[0].asDouble(); return null; })
+            .method("set_z", (self, args) -> { self.arg.z = args[0].asDouble(); return null; })
+            .build();
+
     @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_x", args -> arg.x);
-        set.put("get_y", args -> arg.y);
-        set.put("get_z", args -> arg.z);
-
-        set.put("set_x", args -> { arg.x = args[0].asDouble(); return null; });
-        set.put("set_y", args -> { arg.y = args[0].asDouble(); return null; });
-        set.put("set_z", args -> { arg.z = args[0].asDouble(); return null; });
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
     @Override
@@ -6,9 +6,11 @@ import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.BaseValueConversions;
 import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.CommandApi;
 import dev.diamond.luafy.script.api.obj.entity.display.DisplayEntityScriptObject;
 import dev.diamond.luafy.script.api.obj.math.Vec3dScriptObject;
+import dev.diamond.luafy.script.nbt.LazyNbtElement;
 import dev.diamond.luafy.script.nbt.OptionallyExplicitNbtElement;
 import dev.diamond.luafy.util.HexId;
 import dev.diamond.luafy.util.LuafyUtil;
@@ -33,102 +35,106 @@ public class EntityScriptObject implements IScriptObject {
         this.entity = entity;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_name", args -> entity.getName().getString());
-        set.put("get_uuid", args -> entity.getUuidAsString());
-        set.put("get_nbt", args -> new OptionallyExplicitNbtElement(null, NbtPredicate.entityToNbt(entity)));
-        set.put("get_type", args -> Registries.ENTITY_TYPE.getId(entity.getType()).toString());
-
-        set.put("get_motion", args -> new Vec3dScriptObject(entity.getVelocity()));
-        set.put("get_position", args -> new Vec3dScriptObject(entity.getPos()));
-
-        set.put("get_pitch", args -> entity.getPitch());
-        set.put("get_yaw", args -> entity.getYaw());
-        set.put("get_facing_vector", args -> {
-            var yaw = entity.getYaw(); // xz
-            var pitch = entity.getPitch(); // y
-
-
-            if (yaw < 0) yaw = 360 + yaw;
-            if (pitch < 0) pitch = 360 + pitch;
-
-            return new Vec3dScriptObject(new Vec3d(Math.cos(Math.toRadians(yaw + 90)), Math.sin(Math.toRadians(pitch + 90)), Math.sin(Math.toRadians(yaw + 90))));
-        });
-
-
-        set.put("parse_command_as_at", args -> parseAsAt(args[0].asString(), args[1] == null ? 0 : args[1].asInt()));
-
-        set.put("is_living", args -> entity instanceof LivingEntity);
-        set.put("is_player", args -> entity instanceof ServerPlayerEntity);
-        set.put("is_type", args -> entity.getType() == Registries.ENTITY_TYPE.get(new Identifier(args[0].asString())));
-
-        set.put("test_predicate", args -> LuafyUtil.getAndTestPredicate(args[0].asString(), entity));
-
-        set.put("as_player", args -> new PlayerEntityScriptObject((ServerPlayerEntity) entity));
-        set.put("as_living", args -> new LivingEntityScriptObject((LivingEntity) entity));
-        set.put("as_display", args -> new DisplayEntityScriptObject((DisplayEntity) entity));
-
-        set.put("teleport", args -> {
-            Vec3d pos = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-            entity.teleport(pos.x, pos.y, pos.z);
-            return null;
-        });
-
-        // motion
-        set.put("set_motion", args -> {
-            Vec3d vec3d = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-            entity.setVelocity(vec3d);
-            entity.velocityModified = true;
-            return null;
-        });
-        set.put("add_motion", args -> {
-            Vec3d vec3d = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-            entity.addVelocity(vec3d);
-            entity.velocityModified = true;
-            return null;
-        });
-        set.put("multiply_motion", args -> {
-            Vec3d vec3d = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-            entity.setVelocity(entity.getVelocity().multiply(vec3d));
-            entity.velocityModified = true;
-            return null;
-        });
-
-        // vector
-        set.put("angle_towards", args -> {
-            Vec3d pos = entity.getPos();
-            Vec3d target = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-
-            return new Vec3dScriptObject(angleTo(pos, target));
-        });
-
-        set.put("angle_towards_entity", args -> {
-            Vec3d pos = entity.getPos();
-            Vec3d target = args[0].asScriptObjectAssertive(EntityScriptObject.class).entity.getPos();
-
-            return new Vec3dScriptObject(angleTo(pos, target));
-        });
-
-        // cca
-        set.put("get_cca_nbt", args -> BaseValueConversions.implicit_nbtToBase(LuafyCCA.EntityScriptDataManager.get(entity, args[0].asString()), args[0]::adapt));
-        set.put("set_cca_nbt", args -> {
-            LuafyCCA.EntityScriptDataManager.set(entity, args[0].asString(),
-                    BaseValueConversions.mapToCompound((HashMap<AbstractBaseValue<?, ?>, AbstractBaseValue<?, ?>>) args[1].asMap()));
-            return null;
-        });
-        set.put("modify_cca_nbt", args -> {
-            String subkey = args[0].asString();
-            AdaptableFunction function = args[1].asFunction();
-
-            var nbt = LuafyCCA.EntityScriptDataManager.get(entity, subkey);
-            var r = function.call(BaseValueConversions.implicit_nbtToBase(nbt, args[0]::adapt));
-            nbt = BaseValueConversions.mapToCompound((HashMap<AbstractBaseValue<?, ?>, AbstractBaseValue<?, ?>>) args[0].adapt(r).asMap());
-            LuafyCCA.EntityScriptDataManager.set(entity, subkey, nbt);
-
-            return null;
-        });
+    public static final ScriptObjectType<EntityScriptObject> TYPE = ScriptObjectType.builder("entity", EntityScriptObject.class)
+            .method("get_name", (self, args) -> self.entity.getName().getString())
+            .method("get_uuid", (self, args) -> self.entity.getUuidAsString())
+            .method("get_nbt", (self, args) -> new OptionallyExplicitNbtElement(null, NbtPredicate.entityToNbt(self.entity)))
+            .method("get_nbt_lazy", (self, args) -> new LazyNbtElement(NbtPredicate.entityToNbt(self.entity)))
+            .method("get_type", (self, args) -> Registries.ENTITY_TYPE.getId(self.entity.getType()).toString())
+
+            .method("get_motion", (self, args) -> new Vec3dScriptObject(self.entity.getVelocity()))
+            .method("get_position", (self, args) -> new Vec3dScriptObject(self.entity.getPos()))
+
+            .method("get_pitch", (self, args) -> self.entity.getPitch())
+            .method("get_yaw", (self, args) -> self.entity.getYaw())
+            .method("get_facing_vector", (self, args) -> {
+                var yaw = self.entity.getYaw(); // xz
+                var pitch = self.entity.getPitch(); // y
+
+
+                if (yaw < 0) yaw = 360 + yaw;
+                if (pitch < 0) pitch = 360 + pitch;
+
+                return new Vec3dScriptObject(new Vec3d(Math.cos(Math.toRadians(yaw + 90)), Math.sin(Math.toRadians(pitch + 90)), Math.sin(Math.toRadians(yaw + 90))));
+            })
+
+
+            .method("parse_command_as_at", (self, args) -> self.parseAsAt(args[0].asString(), args.length > 1 ? args[1].asInt() : 0))
+
+            .method("is_living", (self, args) -> self.entity instanceof LivingEntity)
+            .method("is_player", (self, args) -> self.entity instanceof ServerPlayerEntity)
+            .method("is_type", (self, args) -> self.entity.getType() == Registries.ENTITY_TYPE.get(new Identifier(args[0].asString())))
+
+            .method("test_predicate", (self, args) -> LuafyUtil.getAndTestPredicate(args[0].asString(), self.entity))
+
+            .method("as_player", (self, args) -> new PlayerEntityScriptObject((ServerPlayerEntity) self.entity))
+            .method("as_living", (self, args) -> new LivingEntityScriptObject((LivingEntity) self.entity))
+            .method("as_display", (self, args) -> new DisplayEntityScriptObject((DisplayEntity) self.entity))
+
+            .method("teleport", (self, args) -> {
+                Vec3d pos = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                self.entity.teleport(pos.x, pos.y, pos.z);
+                return null;
+            })
+
+            // motion
+            .method("set_motion", (self, args) -> {
+                Vec3d vec3d = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                self.entity.setVelocity(vec3d);
+                self.entity.velocityModified = true;
+                return null;
+            })
+            .method("add_motion", (self, args) -> {
+                Vec3d vec3d = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                self.entity.addVelocity(vec3d);
+                self.entity.velocityModified = true;
+                return null;
+            })
+            .method("multiply_motion", (self, args) -> {
+                Vec3d vec3d = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                self.entity.setVelocity(self.entity.getVelocity().multiply(vec3d));
+                self.entity.velocityModified = true;
+                return null;
+            })
+
+            // vector
+            .method("angle_towards", (self, args) -> {
+                Vec3d pos = self.entity.getPos();
+                Vec3d target = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+
+                return new Vec3dScriptObject(angleTo(pos, target));
+            })
+
+            .method("angle_towards_entity", (self, args) -> {
+                Vec3d pos = self.entity.getPos();
+                Vec3d target = args[0].asScriptObjectAssertive(EntityScriptObject.class).entity.getPos();
+
+                return new Vec3dScriptObject(angleTo(pos, target));
+            })
+
+            // cca
+            .method("get_cca_nbt", (self, args) -> BaseValueConversions.implicit_nbtToBase(LuafyCCA.EntityScriptDataManager.get(self.entity, args[0].asString()), args[0]::adapt))
+            .method("set_cca_nbt", (self, args) -> {
+                LuafyCCA.EntityScriptDataManager.set(self.entity, args[0].asString(),
+                        BaseValueConversions.mapToCompound((HashMap<AbstractBaseValue<?, ?>, AbstractBaseValue<?, ?>>) args[1].asMap()));
+                return null;
+            })
+            .method("modify_cca_nbt", (self, args) -> {
+                String subkey = args[0].asString();
+                AdaptableFunction function = args[1].asFunction();
+
+                var nbt = LuafyCCA.EntityScriptDataManager.get(self.entity, subkey);
+                var r = function.call(BaseValueConversions.implicit_nbtToBase(nbt, args[0]::adapt));
+                nbt = BaseValueConversions.mapToCompound((HashMap<AbstractBaseValue<?, ?>, AbstractBaseValue<?, ?>>) args[0].adapt(r).asMap());
+                LuafyCCA.EntityScriptDataManager.set(self.entity, subkey, nbt);
+
+                return null;
+            })
+            .build();
 
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
 
@@ -142,9 +148,7 @@ public class EntityScriptObject implements IScriptObject {
 
         var parsed = CommandApi.parseCommand(command, source);
 
-        HexId hexid = HexId.makeNewUnique(ScriptManager.ScriptCaches.PREPARSED_COMMANDS.keySet());
-        ScriptManager.ScriptCaches.PREPARSED_COMMANDS.put(hexid, parsed);
-        return hexid;
+        return ScriptManager.ScriptCaches.PREPARSED_COMMANDS.add(parsed);
     }
 
     private static Vec3d angleTo(Vec3d pos, Vec3d target) {
@@ -1,12 +1,10 @@
 package dev.diamond.luafy.script.api.obj.entity;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.obj.minecraft.ItemStackScriptObject;
 import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.entity.LivingEntity;
 
-import java.util.HashMap;
-
 public class LivingEntityScriptObject extends EntityScriptObject {
 
     public final LivingEntity living;
@@ -16,25 +14,27 @@ public class LivingEntityScriptObject extends EntityScriptObject {
         this.living = entity;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        super.addFunctions(set);
+    public static final ScriptObjectType<LivingEntityScriptObject> TYPE = ScriptObjectType.builder("living_entity", LivingEntityScriptObject.class, EntityScriptObject.TYPE)
+            .method("get_mainhand", (self, args) -> self.getStack(EquipmentSlot.MAINHAND))
+            .method("get_offhand", (self, args) -> self.getStack(EquipmentSlot.OFFHAND))
 
-        set.put("get_mainhand", args -> getStack(EquipmentSlot.MAINHAND));
-        set.put("get_offhand", args -> getStack(EquipmentSlot.OFFHAND));
+            .method("get_head_stack", (self, args) -> self.getStack(EquipmentSlot.HEAD))
+            .method("get_chest_stack", (self, args) -> self.getStack(EquipmentSlot.CHEST))
+            .method("get_legs_stack", (self, args) -> self.getStack(EquipmentSlot.LEGS))
+            .method("get_feet_stack", (self, args) -> self.getStack(EquipmentSlot.FEET))
 
-        set.put("get_head_stack", args -> getStack(EquipmentSlot.HEAD));
-        set.put("get_chest_stack", args -> getStack(EquipmentSlot.CHEST));
-        set.put("get_legs_stack", args -> getStack(EquipmentSlot.LEGS));
-        set.put("get_feet_stack", args -> getStack(EquipmentSlot.FEET));
 
+            .method("ignite", (self, args) -> {
+                self.living.setFireTicks(args[0].asInt());
+                self.living.setOnFire(true);
+                return null;
+            })
+            .method("extinguish", (self, args) -> { self.living.setOnFire(false); return null; })
+            .build();
 
-        set.put("ignite", args -> {
-            living.setFireTicks(args[0].asInt());
-            living.setOnFire(true);
-            return null;
-        });
-        set.put("extinguish", args -> { living.setOnFire(false); return null; });
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
 
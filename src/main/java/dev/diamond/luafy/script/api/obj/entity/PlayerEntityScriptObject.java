@@ -2,13 +2,12 @@ package dev.diamond.luafy.script.api.obj.entity;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.obj.minecraft.ItemStackScriptObject;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 
 public class PlayerEntityScriptObject extends LivingEntityScriptObject {
 
@@ -19,14 +18,16 @@ public class PlayerEntityScriptObject extends LivingEntityScriptObject {
         this.player = entity;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        super.addFunctions(set);
+    public static final ScriptObjectType<PlayerEntityScriptObject> TYPE = ScriptObjectType.builder("player", PlayerEntityScriptObject.class, LivingEntityScriptObject.TYPE)
+            .method("dump_statistics", (self, args) -> self.dumpStats())
+            .method("get_ender_items", (self, args) -> self.getEnderItems())
+            .method("get_inventory_items", (self, args) -> self.getInventory())
+            .method("is_sneaking", (self, args) -> self.entity.isSneaky())
+            .build();
 
-        set.put("dump_statistics", args -> dumpStats());
-        set.put("get_ender_items", args -> getEnderItems());
-        set.put("get_inventory_items", args -> getInventory());
-        set.put("is_sneaking", args -> entity.isSneaky());
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
     private JsonObject dumpStats() {
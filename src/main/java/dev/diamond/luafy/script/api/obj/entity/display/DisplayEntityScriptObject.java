@@ -1,6 +1,6 @@
 package dev.diamond.luafy.script.api.obj.entity.display;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.obj.entity.EntityScriptObject;
 import dev.diamond.luafy.script.api.obj.math.Matrix4fScriptObject;
 import dev.diamond.luafy.script.api.obj.math.QuaternionfScriptObject;
@@ -11,8 +11,6 @@ import net.minecraft.util.math.Vec3d;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 
-import java.util.HashMap;
-
 public class DisplayEntityScriptObject extends EntityScriptObject {
     private final DisplayEntity display;
 
@@ -21,17 +19,22 @@ public class DisplayEntityScriptObject extends EntityScriptObject {
         this.display = entity;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
+    // doesn't inherit the entity functions, as before
+    public static final ScriptObjectType<DisplayEntityScriptObject> TYPE = ScriptObjectType.builder("display_entity", DisplayEntityScriptObject.class)
 
-        set.put("as_item", args -> new ItemDisplayEntityScriptObject((DisplayEntity.ItemDisplayEntity) display));
+            .method("as_item", (self, args) -> new ItemDisplayEntityScriptObject((DisplayEntity.ItemDisplayEntity) self.display))
 
 
-        set.put("set_transformation_matrix", args -> {
-            AffineTransformation affine = new AffineTransformation(args[0].asScriptObjectAssertive(Matrix4fScriptObject.class).get());
-            display.setTransformation(affine);
-            return null;
-        });
-        set.put("get_transformation_matrix", args -> new Matrix4fScriptObject(DisplayEntity.getTransformation(display.getDataTracker()).getMatrix()));
+            .method("set_transformation_matrix", (self, args) -> {
+                AffineTransformation affine = new AffineTransformation(args[0].asScriptObjectAssertive(Matrix4fScriptObject.class).get());
+                self.display.setTransformation(affine);
+                return null;
+            })
+            .method("get_transformation_matrix", (self, args) -> new Matrix4fScriptObject(DisplayEntity.getTransformation(self.display.getDataTracker()).getMatrix()))
+            .build();
+
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 }
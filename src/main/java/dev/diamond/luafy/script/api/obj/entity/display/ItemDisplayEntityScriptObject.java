@@ -1,12 +1,10 @@
 package dev.diamond.luafy.script.api.obj.entity.display;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.obj.minecraft.ItemStackScriptObject;
 import net.minecraft.entity.decoration.DisplayEntity.ItemDisplayEntity;
 import net.minecraft.item.ItemStack;
 
-import java.util.HashMap;
-
 public class ItemDisplayEntityScriptObject extends DisplayEntityScriptObject {
 
     private final ItemDisplayEntity itemDisplay;
@@ -16,14 +14,16 @@ public class ItemDisplayEntityScriptObject extends DisplayEntityScriptObject {
         this.itemDisplay = entity;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        super.addFunctions(set);
+    public static final ScriptObjectType<ItemDisplayEntityScriptObject> TYPE = ScriptObjectType.builder("item_display_entity", ItemDisplayEntityScriptObject.class, DisplayEntityScriptObject.TYPE)
+            .method("set_stack", (self, args) -> {
+                ItemStack stack = args[0].asScriptObjectAssertive(ItemStackScriptObject.class).get();
+                self.itemDisplay.getStackReference(0).set(stack);
+                return null;
+            })
+            .build();
 
-        set.put("set_stack", args -> {
-            ItemStack stack = args[0].asScriptObjectAssertive(ItemStackScriptObject.class).get();
-            itemDisplay.getStackReference(0).set(stack);
-            return null;
-        });
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 }
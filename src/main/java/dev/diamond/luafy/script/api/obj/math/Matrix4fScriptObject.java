@@ -1,14 +1,18 @@
 package dev.diamond.luafy.script.api.obj.math;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.Operator;
+import net.minecraft.util.math.Vec3d;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
 import java.text.NumberFormat;
 import java.util.Arrays;
-import java.util.HashMap;
+
+import static dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.operand;
+import static dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.unsupportedOperands;
 
 public class Matrix4fScriptObject implements IScriptObject {
 
@@ -18,49 +22,96 @@ public class Matrix4fScriptObject implements IScriptObject {
         this.mat = mat;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("set_translation", args -> {
-           Vector3f v = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get().toVector3f();
-           mat.setTranslation(v.x, v.y, v.z);
-           return null;
-        });
+    public static final ScriptObjectType<Matrix4fScriptObject> TYPE = ScriptObjectType.builder("matrix4f", Matrix4fScriptObject.class)
+            .method("set_translation", (self, args) -> {
+               Vector3f v = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get().toVector3f();
+               self.mat.setTranslation(v.x, v.y, v.z);
+               return null;
+            })
+
+            .method("scale", (self, args) -> {
+                Vector3f v = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get().toVector3f();
+                self.mat.scale(v.x, v.y, v.z);
+                return null;
+            })
+
+            .method("rotate", (self, args) -> {
+                Quaternionf quat = args[0].asScriptObjectAssertive(QuaternionfScriptObject.class).get();
+
+                self.mat.rotate(quat);
+
+                return null;
+            })
 
-        set.put("scale", args -> {
-            Vector3f v = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get().toVector3f();
-            mat.scale(v.x, v.y, v.z);
-            return null;
-        });
 
-        set.put("rotate", args -> {
-            Quaternionf quat = args[0].asScriptObjectAssertive(QuaternionfScriptObject.class).get();
 
-            mat.rotate(quat);
 
-            return null;
-        });
+            .method("mul", (self, args) -> new Matrix4fScriptObject(new Matrix4f(self.mat).mul(args[0].asScriptObjectAssertive(Matrix4fScriptObject.class).get())))
+            .method("transform", (self, args) -> self.transform(args[0].asScriptObjectAssertive(Vec3dScriptObject.class)))
+            .method("copy", (self, args) -> new Matrix4fScriptObject(new Matrix4f(self.mat)))
 
+            // in place
+            .method("mul_in_place", (self, args) -> { self.mat.mul(args[0].asScriptObjectAssertive(Matrix4fScriptObject.class).get()); return null; })
+            .method("translate", (self, args) -> {
+                Vec3d v = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                self.mat.translate((float) v.x, (float) v.y, (float) v.z);
+                return null;
+            })
+            .method("identity", (self, args) -> { self.mat.identity(); return null; })
 
 
+            .method("to_string", (self, args) -> self.toString())
+            .method("to_list", (self, args) -> {
+                Matrix4f mat = self.mat;
+                return Arrays.stream(new Float[] {
+                        mat.m00(), mat.m01(), mat.m02(), mat.m03(),
+                        mat.m10(), mat.m11(), mat.m12(), mat.m13(),
+                        mat.m20(), mat.m21(), mat.m22(), mat.m23(),
+                        mat.m30(), mat.m31(), mat.m32(), mat.m33()
+                }).toList();
+            })
 
-        set.put("to_string", args ->
-            String.format(
-                    "[%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s]",
-                    mat.m00(), mat.m01(), mat.m02(), mat.m03(),
-                    mat.m10(), mat.m11(), mat.m12(), mat.m13(),
-                    mat.m20(), mat.m21(), mat.m22(), mat.m23(),
-                    mat.m30(), mat.m31(), mat.m32(), mat.m33()
-            )
+            .operator(Operator.MUL, args -> {
+                // matrix * matrix multiplies them, matrix * vector transforms the vector as a position
+                Matrix4fScriptObject a = operand(args[0], Matrix4fScriptObject.class);
+                if (a != null) {
+                    Vec3dScriptObject v = operand(args[1], Vec3dScriptObject.class);
+                    if (v != null) return a.transform(v);
+                    Matrix4fScriptObject b = operand(args[1], Matrix4fScriptObject.class);
+                    if (b != null) return new Matrix4fScriptObject(new Matrix4f(a.mat).mul(b.mat));
+                }
+                throw unsupportedOperands(Operator.MUL, args);
+            })
+            .operator(Operator.TO_STRING, args -> args[0].asScriptObjectAssertive(Matrix4fScriptObject.class).toString())
+            .build();
+
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
+    }
+
+    private Vec3dScriptObject transform(Vec3dScriptObject vec) {
+        Vec3d v = vec.get();
+        // same as Matrix4f#transformPosition, in doubles
+        return new Vec3dScriptObject(
+                mat.m00() * v.x + mat.m10() * v.y + mat.m20() * v.z + mat.m30(),
+                mat.m01() * v.x + mat.m11() * v.y + mat.m21() * v.z + mat.m31(),
+                mat.m02() * v.x + mat.m12() * v.y + mat.m22() * v.z + mat.m32()
         );
-        set.put("to_list", args -> Arrays.stream(new Float[] {
-                mat.m00(), mat.m01(), mat.m02(), mat.m03(),
-                mat.m10(), mat.m11(), mat.m12(), mat.m13(),
-                mat.m20(), mat.m21(), mat.m22(), mat.m23(),
-                mat.m30(), mat.m31(), mat.m32(), mat.m33()
-        }).toList());
     }
 
     public Matrix4f get() {
         return mat;
     }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "[%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s]",
+                mat.m00(), mat.m01(), mat.m02(), mat.m03(),
+                mat.m10(), mat.m11(), mat.m12(), mat.m13(),
+                mat.m20(), mat.m21(), mat.m22(), mat.m23(),
+                mat.m30(), mat.m31(), mat.m32(), mat.m33()
+        );
+    }
 }
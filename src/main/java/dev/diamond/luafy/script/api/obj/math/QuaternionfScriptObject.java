@@ -1,10 +1,14 @@
 package dev.diamond.luafy.script.api.obj.math;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.Operator;
+import net.minecraft.util.math.Vec3d;
 import org.joml.Quaternionf;
+import org.joml.Vector3d;
 
-import java.util.HashMap;
+import static dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.operand;
+import static dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.unsupportedOperands;
 
 public class QuaternionfScriptObject implements IScriptObject {
 
@@ -14,20 +18,79 @@ public class QuaternionfScriptObject implements IScriptObject {
         this.quaternion = quaternion;
     }
 
+    public static final ScriptObjectType<QuaternionfScriptObject> TYPE = ScriptObjectType.builder("quaternion", QuaternionfScriptObject.class)
+            .method("get_x", (self, args) -> self.quaternion.x)
+            .method("get_y", (self, args) -> self.quaternion.y)
+            .method("get_z", (self, args) -> self.quaternion.z)
+            .method("get_w", (self, args) -> self.quaternion.w)
+
+            .method("set_x", (self, args) -> self.quaternion.x = args[0].asFloat())
+            .method("set_y", (self, args) -> self.quaternion.y = args[0].asFloat())
+            .method("set_z", (self, args) -> self.quaternion.z = args[0].asFloat() )
+            .method("set_w", (self, args) -> self.quaternion.w = args[0].asFloat())
+
+            .method("mul", (self, args) -> new QuaternionfScriptObject(new Quaternionf(self.quaternion).mul(args[0].asScriptObjectAssertive(QuaternionfScriptObject.class).get())))
+            .method("normalize", (self, args) -> new QuaternionfScriptObject(new Quaternionf(self.quaternion).normalize()))
+            .method("conjugate", (self, args) -> new QuaternionfScriptObject(new Quaternionf(self.quaternion).conjugate()))
+            .method("transform", (self, args) -> self.transform(args[0].asScriptObjectAssertive(Vec3dScriptObject.class)))
+            .method("copy", (self, args) -> new QuaternionfScriptObject(new Quaternionf(self.quaternion)))
+
+            // in place
+            .method("mul_in_place", (self, args) -> { self.quaternion.mul(args[0].asScriptObjectAssertive(QuaternionfScriptObject.class).get()); return null; })
+            .method("normalize_in_place", (self, args) -> { self.quaternion.normalize(); return null; })
+            .method("conjugate_in_place", (self, args) -> { self.quaternion.conjugate(); return null; })
+
+            .method("to_string", (self, args) -> self.toString())
+
+            .operator(Operator.ADD, args -> {
+                QuaternionfScriptObject a = operand(args[0], QuaternionfScriptObject.class);
+                QuaternionfScriptObject b = operand(args[1], QuaternionfScriptObject.class);
+                if (a == null || b == null) throw unsupportedOperands(Operator.ADD, args);
+                return new QuaternionfScriptObject(new Quaternionf(a.quaternion).add(b.quaternion));
+            })
+            .operator(Operator.SUB, args -> {
+                QuaternionfScriptObject a = operand(args[0], QuaternionfScriptObject.class);
+                QuaternionfScriptObject b = operand(args[1], QuaternionfScriptObject.class);
+                if (a == null || b == null) throw unsupportedOperands(Operator.SUB, args);
+                Quaternionf p = a.quaternion, q = b.quaternion;
+                return new QuaternionfScriptObject(new Quaternionf(p.x - q.x, p.y - q.y, p.z - q.z, p.w - q.w));
+            })
+            .operator(Operator.MUL, args -> {
+                // quaternion * quaternion combines the rotations, quaternion * vector rotates the vector
+                QuaternionfScriptObject a = operand(args[0], QuaternionfScriptObject.class);
+                if (a != null) {
+                    Vec3dScriptObject v = operand(args[1], Vec3dScriptObject.class);
+                    if (v != null) return a.transform(v);
+                    QuaternionfScriptObject b = operand(args[1], QuaternionfScriptObject.class);
+                    if (b != null) return new QuaternionfScriptObject(new Quaternionf(a.quaternion).mul(b.quaternion));
+                }
+                throw unsupportedOperands(Operator.MUL, args);
+            })
+            .operator(Operator.UNM, args -> {
+                Quaternionf a = args[0].asScriptObjectAssertive(QuaternionfScriptObject.class).get();
+                return new QuaternionfScriptObject(new Quaternionf(-a.x, -a.y, -a.z, -a.w));
+            })
+            .operator(Operator.TO_STRING, args -> args[0].asScriptObjectAssertive(QuaternionfScriptObject.class).toString())
+            .build();
+
     @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_x", args -> quaternion.x);
-        set.put("get_y", args -> quaternion.y);
-        set.put("get_z", args -> quaternion.z);
-        set.put("get_w", args -> quaternion.w);
-
-        set.put("set_x", args -> quaternion.x = args[0].asFloat());
-        set.put("set_y", args -> quaternion.y = args[0].asFloat());
-        set.put("set_z", args -> quaternion.z = args[0].asFloat() );
-        set.put("set_w", args -> quaternion.w = args[0].asFloat());
+    public ScriptObjectType<?> getType() {
+        return TYPE;
+    }
+
+
+    private Vec3dScriptObject transform(Vec3dScriptObject vec) {
+        Vec3d v = vec.get();
+        Vector3d rotated = quaternion.transform(new Vector3d(v.x, v.y, v.z));
+        return new Vec3dScriptObject(rotated.x, rotated.y, rotated.z);
     }
 
     public Quaternionf get() {
         return quaternion;
     }
+
+    @Override
+    public String toString() {
+        return "(" + quaternion.x + ", " + quaternion.y + ", " + quaternion.z + ", " + quaternion.w + ")";
+    }
 }
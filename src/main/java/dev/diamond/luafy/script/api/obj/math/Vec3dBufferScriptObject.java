@@ -0,0 +1,260 @@
+package dev.diamond.luafy.script.api.obj.math;
+
+import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
+import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.Operator;
+import net.minecraft.util.math.Vec3d;
+import org.joml.Matrix3d;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A fixed number of vectors packed into one array per component, so a script can change all of them with one call
+ * instead of one call per vector. Indices are 1-based, like Lua lists. <br>
+ *
+ * Every bulk operation changes the buffer in place and is a flat loop over the primitive arrays, which the JIT can
+ * vectorise on its own.
+ */
+public class Vec3dBufferScriptObject implements IScriptObject {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    public Vec3dBufferScriptObject(int size) {
+        if (size < 0) throw new IllegalArgumentException("Vector buffer size can't be negative: " + size);
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.zs = new double[size];
+    }
+
+    public static Vec3dBufferScriptObject of(Collection<? extends AbstractBaseValue<?, ?>> vectors) {
+        Vec3dBufferScriptObject buffer = new Vec3dBufferScriptObject(vectors.size());
+        int i = 0;
+        for (var value : vectors) {
+            Vec3d v = value.asScriptObjectAssertive(Vec3dScriptObject.class).get();
+            buffer.xs[i] = v.x;
+            buffer.ys[i] = v.y;
+            buffer.zs[i] = v.z;
+            i++;
+        }
+        return buffer;
+    }
+
+    public static final ScriptObjectType<Vec3dBufferScriptObject> TYPE = ScriptObjectType.builder("vec3d_buffer", Vec3dBufferScriptObject.class)
+            .method("size", (self, args) -> self.size())
+
+            .method("get", (self, args) -> {
+                int i = self.index(args[0]);
+                return new Vec3dScriptObject(self.xs[i], self.ys[i], self.zs[i]);
+            })
+            .method("get_x", (self, args) -> self.xs[self.index(args[0])])
+            .method("get_y", (self, args) -> self.ys[self.index(args[0])])
+            .method("get_z", (self, args) -> self.zs[self.index(args[0])])
+            .method("set", (self, args) -> {
+                int i = self.index(args[0]);
+                Vec3dScriptObject vec = args[1].asScriptObjectAssertive(Vec3dScriptObject.class);
+                if (vec == null) self.set(i, args[1].asDouble(), args[2].asDouble(), args[3].asDouble());
+                else {
+                    Vec3d v = vec.get();
+                    self.set(i, v.x, v.y, v.z);
+                }
+                return null;
+            })
+
+            .method("fill", (self, args) -> {
+                Vec3d v = vectorArg(args);
+                self.fill(v.x, v.y, v.z);
+                return null;
+            })
+            .method("add", (self, args) -> {
+                Vec3d v = vectorArg(args);
+                self.add(v.x, v.y, v.z);
+                return null;
+            })
+            .method("multiply", (self, args) -> {
+                Vec3d v = vectorArg(args);
+                self.multiply(v.x, v.y, v.z);
+                return null;
+            })
+            .method("scale", (self, args) -> {
+                double s = args[0].asDouble();
+                self.multiply(s, s, s);
+                return null;
+            })
+            .method("add_buffer", (self, args) -> {
+                self.addBuffer(self.other(args[0]), args.length > 1 ? args[1].asDouble() : 1);
+                return null;
+            })
+            .method("lerp", (self, args) -> {
+                self.lerp(self.other(args[0]), args[1].asDouble());
+                return null;
+            })
+            .method("transform", (self, args) -> {
+                self.transform(args[0].asScriptObjectAssertive(Matrix4fScriptObject.class).get());
+                return null;
+            })
+            .method("rotate", (self, args) -> {
+                self.rotate(args[0].asScriptObjectAssertive(QuaternionfScriptObject.class).get());
+                return null;
+            })
+
+            .method("copy", (self, args) -> {
+                Vec3dBufferScriptObject copy = new Vec3dBufferScriptObject(self.size());
+                copy.copyFrom(self);
+                return copy;
+            })
+            .method("copy_from", (self, args) -> {
+                self.copyFrom(self.other(args[0]));
+                return null;
+            })
+            .method("to_list", (self, args) -> {
+                ArrayList<Vec3dScriptObject> list = new ArrayList<>(self.size());
+                for (int i = 0; i < self.size(); i++) {
+                    list.add(new Vec3dScriptObject(self.xs[i], self.ys[i], self.zs[i]));
+                }
+                return list;
+            })
+
+            .operator(Operator.TO_STRING, args -> "vec3d_buffer(" + args[0].asScriptObjectAssertive(Vec3dBufferScriptObject.class).size() + ")")
+            .build();
+
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
+    }
+
+
+    public int size() {
+        return xs.length;
+    }
+    public double getX(int i) {
+        return xs[i];
+    }
+    public double getY(int i) {
+        return ys[i];
+    }
+    public double getZ(int i) {
+        return zs[i];
+    }
+
+    public void set(int i, double x, double y, double z) {
+        xs[i] = x;
+        ys[i] = y;
+        zs[i] = z;
+    }
+
+    public void fill(double x, double y, double z) {
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = x;
+            ys[i] = y;
+            zs[i] = z;
+        }
+    }
+
+    public void add(double x, double y, double z) {
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] += x;
+            ys[i] += y;
+            zs[i] += z;
+        }
+    }
+
+    public void multiply(double x, double y, double z) {
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] *= x;
+            ys[i] *= y;
+            zs[i] *= z;
+        }
+    }
+
+    /**
+     * Adds <code>scale</code> times each vector of <code>other</code> to the matching vector of this buffer.
+     */
+    public void addBuffer(Vec3dBufferScriptObject other, double scale) {
+        checkSize(other);
+        double[] ox = other.xs, oy = other.ys, oz = other.zs;
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] += ox[i] * scale;
+            ys[i] += oy[i] * scale;
+            zs[i] += oz[i] * scale;
+        }
+    }
+
+    public void lerp(Vec3dBufferScriptObject other, double delta) {
+        checkSize(other);
+        double[] ox = other.xs, oy = other.ys, oz = other.zs;
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] += (ox[i] - xs[i]) * delta;
+            ys[i] += (oy[i] - ys[i]) * delta;
+            zs[i] += (oz[i] - zs[i]) * delta;
+        }
+    }
+
+    /**
+     * Transforms every vector as a position, like {@link Matrix4f#transformPosition}, but in doubles.
+     */
+    public void transform(Matrix4f mat) {
+        double m00 = mat.m00(), m01 = mat.m01(), m02 = mat.m02();
+        double m10 = mat.m10(), m11 = mat.m11(), m12 = mat.m12();
+        double m20 = mat.m20(), m21 = mat.m21(), m22 = mat.m22();
+        double m30 = mat.m30(), m31 = mat.m31(), m32 = mat.m32();
+
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i], y = ys[i], z = zs[i];
+            xs[i] = m00 * x + m10 * y + m20 * z + m30;
+            ys[i] = m01 * x + m11 * y + m21 * z + m31;
+            zs[i] = m02 * x + m12 * y + m22 * z + m32;
+        }
+    }
+
+    public void rotate(Quaternionf quaternion) {
+        // one rotation matrix for the whole buffer instead of a quaternion product per vector
+        Matrix3d mat = quaternion.get(new Matrix3d());
+        double m00 = mat.m00, m01 = mat.m01, m02 = mat.m02;
+        double m10 = mat.m10, m11 = mat.m11, m12 = mat.m12;
+        double m20 = mat.m20, m21 = mat.m21, m22 = mat.m22;
+
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i], y = ys[i], z = zs[i];
+            xs[i] = m00 * x + m10 * y + m20 * z;
+            ys[i] = m01 * x + m11 * y + m21 * z;
+            zs[i] = m02 * x + m12 * y + m22 * z;
+        }
+    }
+
+    public void copyFrom(Vec3dBufferScriptObject other) {
+        checkSize(other);
+        System.arraycopy(other.xs, 0, xs, 0, xs.length);
+        System.arraycopy(other.ys, 0, ys, 0, ys.length);
+        System.arraycopy(other.zs, 0, zs, 0, zs.length);
+    }
+
+
+    private int index(AbstractBaseValue<?, ?> arg) {
+        int i = arg.asInt();
+        if (i < 1 || i > xs.length) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for vector buffer of size " + xs.length);
+        return i - 1;
+    }
+
+    private Vec3dBufferScriptObject other(AbstractBaseValue<?, ?> arg) {
+        Vec3dBufferScriptObject other = arg.asScriptObjectAssertive(Vec3dBufferScriptObject.class);
+        if (other == null) throw new IllegalArgumentException("Expected a vector buffer");
+        return other;
+    }
+
+    private void checkSize(Vec3dBufferScriptObject other) {
+        if (other.size() != size())
+            throw new IllegalArgumentException("Vector buffer sizes don't match (" + size() + " and " + other.size() + ")");
+    }
+
+    private static Vec3d vectorArg(AbstractBaseValue<?, ?>[] args) {
+        Vec3dScriptObject vec = args[0].asScriptObjectAssertive(Vec3dScriptObject.class);
+        if (vec == null) return new Vec3d(args[0].asDouble(), args[1].asDouble(), args[2].asDouble());
+        return vec.get();
+    }
+}
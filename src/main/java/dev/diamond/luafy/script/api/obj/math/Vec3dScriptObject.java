@@ -1,62 +1,175 @@
 package dev.diamond.luafy.script.api.obj.math;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.Operator;
 import net.minecraft.util.math.Vec3d;
 
-import java.util.HashMap;
-import java.util.function.Function;
+import static dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.operand;
+import static dev.diamond.luafy.script.abstraction.obj.ScriptObjectType.unsupportedOperands;
 
+/**
+ * A mutable vector. The plain functions return a new vector like before; the <code>_in_place</code> ones change this
+ * one and return nothing, so scripts doing vector maths in a loop don't make an object per step. <br>
+ *
+ * Functions taking another vector also take it as three numbers instead.
+ */
 public class Vec3dScriptObject implements IScriptObject {
 
-    private final Vec3d vec;
+    private double x;
+    private double y;
+    private double z;
 
     public Vec3dScriptObject(Vec3d vec) {
-        this.vec = vec;
+        this(vec.x, vec.y, vec.z);
     }
+    public Vec3dScriptObject(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public static final ScriptObjectType<Vec3dScriptObject> TYPE = ScriptObjectType.builder("vec3d", Vec3dScriptObject.class)
+            .method("get_x", (self, args) -> self.x)
+            .method("get_y", (self, args) -> self.y)
+            .method("get_z", (self, args) -> self.z)
+
+            .method("set_x", (self, args) -> { self.x = args[0].asDouble(); return null; })
+            .method("set_y", (self, args) -> { self.y = args[0].asDouble(); return null; })
+            .method("set_z", (self, args) -> { self.z = args[0].asDouble(); return null; })
+            .method("set", (self, args) -> withOther(self, args, Vec3dScriptObject::set))
+
+
+            .method("add",          (self, args) -> new Vec3dScriptObject(self.get().add(other(args))))
+            .method("subtract",     (self, args) -> new Vec3dScriptObject(self.get().subtract(other(args))))
+            .method("multiply",     (self, args) -> new Vec3dScriptObject(self.get().multiply(other(args))))
+            .method("scale",        (self, args) -> self.scaled(args[0].asDouble()))
+            .method("distance",     (self, args) -> self.get().distanceTo(other(args)))
+            .method("sqr_distance", (self, args) -> self.get().squaredDistanceTo(other(args)))
+            .method("dot",          (self, args) -> self.get().dotProduct(other(args)))
+            .method("cross",        (self, args) -> new Vec3dScriptObject(self.get().crossProduct(other(args))))
+            .method("relativize",   (self, args) -> new Vec3dScriptObject(self.get().relativize(other(args))))
+            .method("lerp",         (self, args) -> new Vec3dScriptObject(self.get().lerp(other(args), args[deltaIndex(args)].asDouble())))
+
+            .method("normalize", (self, args) -> new Vec3dScriptObject(self.get().normalize()))
+            .method("negate", (self, args) -> new Vec3dScriptObject(-self.x, -self.y, -self.z))
+            .method("length", (self, args) -> Math.sqrt(self.x * self.x + self.y * self.y + self.z * self.z))
+            .method("sqr_length", (self, args) -> self.x * self.x + self.y * self.y + self.z * self.z)
+            .method("copy", (self, args) -> new Vec3dScriptObject(self.x, self.y, self.z))
+
+            // in place
+            .method("add_in_place",      (self, args) -> withOther(self, args, (v, x, y, z) -> v.set(v.x + x, v.y + y, v.z + z)))
+            .method("subtract_in_place", (self, args) -> withOther(self, args, (v, x, y, z) -> v.set(v.x - x, v.y - y, v.z - z)))
+            .method("multiply_in_place", (self, args) -> withOther(self, args, (v, x, y, z) -> v.set(v.x * x, v.y * y, v.z * z)))
+            .method("scale_in_place", (self, args) -> {
+                double s = args[0].asDouble();
+                self.set(self.x * s, self.y * s, self.z * s);
+                return null;
+            })
+            .method("lerp_in_place", (self, args) -> {
+                double delta = args[deltaIndex(args)].asDouble();
+                return withOther(self, args, (v, x, y, z) -> v.set(v.x + (x - v.x) * delta, v.y + (y - v.y) * delta, v.z + (z - v.z) * delta));
+            })
+            .method("normalize_in_place", (self, args) -> {
+                double length = Math.sqrt(self.x * self.x + self.y * self.y + self.z * self.z);
+                // same cutoff as Vec3d#normalize
+                if (length < 1.0E-4) self.set(0, 0, 0);
+                else self.set(self.x / length, self.y / length, self.z / length);
+                return null;
+            })
+            .method("negate_in_place", (self, args) -> { self.set(-self.x, -self.y, -self.z); return null; })
+
+
+            .method("to_string", (self, args) -> self.toString())
+
+            .operator(Operator.ADD, args -> {
+                Vec3dScriptObject a = operand(args[0], Vec3dScriptObject.class);
+                Vec3dScriptObject b = operand(args[1], Vec3dScriptObject.class);
+                if (a == null || b == null) throw unsupportedOperands(Operator.ADD, args);
+                return new Vec3dScriptObject(a.x + b.x, a.y + b.y, a.z + b.z);
+            })
+            .operator(Operator.SUB, args -> {
+                Vec3dScriptObject a = operand(args[0], Vec3dScriptObject.class);
+                Vec3dScriptObject b = operand(args[1], Vec3dScriptObject.class);
+                if (a == null || b == null) throw unsupportedOperands(Operator.SUB, args);
+                return new Vec3dScriptObject(a.x - b.x, a.y - b.y, a.z - b.z);
+            })
+            .operator(Operator.MUL, args -> {
+                // vector * vector multiplies each component, vector * number (either way around) scales
+                Vec3dScriptObject a = operand(args[0], Vec3dScriptObject.class);
+                Vec3dScriptObject b = operand(args[1], Vec3dScriptObject.class);
+                if (a != null && b != null) return new Vec3dScriptObject(a.x * b.x, a.y * b.y, a.z * b.z);
+                if (a != null && args[1].isDouble()) return a.scaled(args[1].asDouble());
+                if (b != null && args[0].isDouble()) return b.scaled(args[0].asDouble());
+                throw unsupportedOperands(Operator.MUL, args);
+            })
+            .operator(Operator.DIV, args -> {
+                Vec3dScriptObject a = operand(args[0], Vec3dScriptObject.class);
+                if (a == null || !args[1].isDouble()) throw unsupportedOperands(Operator.DIV, args);
+                return a.scaled(1 / args[1].asDouble());
+            })
+            .operator(Operator.UNM, args -> {
+                Vec3dScriptObject a = args[0].asScriptObjectAssertive(Vec3dScriptObject.class);
+                return new Vec3dScriptObject(-a.x, -a.y, -a.z);
+            })
+            .operator(Operator.TO_STRING, args -> args[0].asScriptObjectAssertive(Vec3dScriptObject.class).toString())
+            .build();
 
     @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_x", args -> vec.x);
-        set.put("get_y", args -> vec.y);
-        set.put("get_z", args -> vec.z);
+    public ScriptObjectType<?> getType() {
+        return TYPE;
+    }
 
 
-        set.put("add",          args -> new Vec3dScriptObject((Vec3d) withOther(args, vec::add)));
-        set.put("multiply",     args -> new Vec3dScriptObject((Vec3d) withOther(args, vec::multiply)));
-        set.put("distance",     args -> new Vec3dScriptObject((Vec3d) withOther(args, vec::distanceTo)));
-        set.put("sqr_distance", args -> new Vec3dScriptObject((Vec3d) withOther(args, vec::squaredDistanceTo)));
-        set.put("dot",          args -> new Vec3dScriptObject((Vec3d) withOther(args, vec::dotProduct)));
-        set.put("cross",        args -> new Vec3dScriptObject((Vec3d) withOther(args, vec::crossProduct)));
-        set.put("relativize",   args -> new Vec3dScriptObject((Vec3d) withOther(args, vec::relativize)));
-        set.put("lerp",         args -> new Vec3dScriptObject((Vec3d) withOther(args, v -> vec.lerp(v, args[2].asDouble()))));
+    private void set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
 
-        set.put("normalize", args -> new Vec3dScriptObject(vec.normalize()));
-        set.put("negate", args -> new Vec3dScriptObject(vec.negate()));
+    private Vec3dScriptObject scaled(double s) {
+        return new Vec3dScriptObject(x * s, y * s, z * s);
+    }
 
+    /**
+     * Calls <code>f</code> with the other vector's components, read straight from the object or the three number
+     * arguments, without making a <code>Vec3d</code> for it.
+     */
+    private static Object withOther(Vec3dScriptObject self, AbstractBaseValue<?, ?>[] args, ComponentConsumer f) {
+        Vec3dScriptObject other = args[0].asScriptObjectAssertive(Vec3dScriptObject.class);
 
-        set.put("to_string", args -> vec.toString());
-    }
+        if (other == null) f.accept(self, args[0].asDouble(), args[1].asDouble(), args[2].asDouble());
+        else f.accept(self, other.x, other.y, other.z);
 
-    private Object withOther(AbstractBaseValue<?, ?>[] args, Function<Vec3d, Object> f) {
-        Vec3dScriptObject vecSo = null;
+        return null;
+    }
 
-        if (args[0].isScriptObjectAssertive(Vec3dScriptObject.class)) {
-            vecSo = args[0].asScriptObjectAssertive(Vec3dScriptObject.class);
-        }
+    private static Vec3d other(AbstractBaseValue<?, ?>[] args) {
+        Vec3dScriptObject other = args[0].asScriptObjectAssertive(Vec3dScriptObject.class);
 
-        Vec3d vec;
-        if (vecSo == null) {
-            vec = new Vec3d(args[0].asDouble(), args[1].asDouble(), args[2].asDouble());
-        } else {
-            vec = vecSo.get();
-        }
+        if (other == null) return new Vec3d(args[0].asDouble(), args[1].asDouble(), args[2].asDouble());
+        return other.get();
+    }
 
-        return f.apply(vec);
+    /**
+     * @return where the argument after the other vector is, which depends on whether it was one object or three numbers.
+     */
+    private static int deltaIndex(AbstractBaseValue<?, ?>[] args) {
+        return args[0].isScriptObjectAssertive(Vec3dScriptObject.class) ? 1 : 3;
     }
 
     public Vec3d get() {
-        return vec;
+        return new Vec3d(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+
+    @FunctionalInterface
+    private interface ComponentConsumer {
+        void accept(Vec3dScriptObject self, double x, double y, double z);
     }
 }
@@ -1,11 +1,9 @@
 package dev.diamond.luafy.script.api.obj.minecraft;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import net.minecraft.state.property.Property;
 
-import java.util.HashMap;
-
 public class BlockStatePropertyScriptObject implements IScriptObject {
 
     private final Property<?> property;
@@ -14,9 +12,13 @@ public class BlockStatePropertyScriptObject implements IScriptObject {
         this.property = property;
     }
 
+    public static final ScriptObjectType<BlockStatePropertyScriptObject> TYPE = ScriptObjectType.builder("block_state_property", BlockStatePropertyScriptObject.class)
+            .method("get_name", (self, args) -> self.property.getName())
+            .build();
+
     @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_name", args -> property.getName());
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
     public Property<?> get() {
@@ -1,15 +1,13 @@
 package dev.diamond.luafy.script.api.obj.minecraft;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import net.minecraft.block.BlockState;
 import net.minecraft.registry.Registries;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.tag.TagKey;
 import net.minecraft.util.Identifier;
 
-import java.util.HashMap;
-
 public class BlockStateScriptObject implements IScriptObject {
 
     private final BlockState block;
@@ -18,12 +16,16 @@ public class BlockStateScriptObject implements IScriptObject {
         this.block = block;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_block_id", args -> Registries.BLOCK.getId(block.getBlock()));
-        set.put("get_properties", args -> block.getProperties().stream().map(BlockStatePropertyScriptObject::new).toList());
-        set.put("get_property_value", args -> block.get(args[0].asScriptObjectAssertive(BlockStatePropertyScriptObject.class).get()));
+    public static final ScriptObjectType<BlockStateScriptObject> TYPE = ScriptObjectType.builder("block_state", BlockStateScriptObject.class)
+            .method("get_block_id", (self, args) -> Registries.BLOCK.getId(self.block.getBlock()))
+            .method("get_properties", (self, args) -> self.block.getProperties().stream().map(BlockStatePropertyScriptObject::new).toList())
+            .method("get_property_value", (self, args) -> self.block.get(args[0].asScriptObjectAssertive(BlockStatePropertyScriptObject.class).get()))
 
-        set.put("in_tag", args -> block.isIn(TagKey.of(RegistryKeys.BLOCK, new Identifier(args[0].asString()))));
+            .method("in_tag", (self, args) -> self.block.isIn(TagKey.of(RegistryKeys.BLOCK, new Identifier(args[0].asString()))))
+            .build();
+
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 }
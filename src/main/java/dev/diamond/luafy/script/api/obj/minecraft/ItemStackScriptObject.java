@@ -1,9 +1,9 @@
 package dev.diamond.luafy.script.api.obj.minecraft;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.BaseValueConversions;
 import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.obj.entity.EntityScriptObject;
 import dev.diamond.luafy.script.api.obj.entity.LivingEntityScriptObject;
 import dev.diamond.luafy.script.api.obj.entity.PlayerEntityScriptObject;
@@ -25,34 +25,38 @@ public class ItemStackScriptObject implements IScriptObject {
         this.stack = stack;
     }
 
+    public static final ScriptObjectType<ItemStackScriptObject> TYPE = ScriptObjectType.builder("item_stack", ItemStackScriptObject.class)
+            .method("get_id", (self, args) -> Registries.ITEM.getId(self.stack.getItem()).toString())
+            .method("get_count", (self, args) -> self.stack.getCount())
+
+            .method("get_nbt", (self, args) -> new OptionallyExplicitNbtElement(null, self.stack.getOrCreateNbt()))
+            .method("set_nbt", (self, args) -> {
+                self.stack.setNbt(BaseValueConversions.mapToCompound((HashMap<AbstractBaseValue<?,?>, AbstractBaseValue<?,?>>) args[0].asMap()));
+                return null;
+            })
+
+            .method("set_cooldown_ticks", (self, args) -> {
+                ServerPlayerEntity player = args[0].asScriptObjectAssertive(PlayerEntityScriptObject.class).player;
+                int ticks = args[1].asInt();
+                player.getItemCooldownManager().set(self.stack.getItem(), ticks);
+                return null;
+            })
+
+            .method("get_cooldown_ticks", (self, args) -> {
+                ServerPlayerEntity player = args[0].asScriptObjectAssertive(PlayerEntityScriptObject.class).player;
+                return player.getItemCooldownManager().getCooldownProgress(self.stack.getItem(), 0f);
+            })
+
+            .method("remove_cooldown", (self, args) -> {
+                ServerPlayerEntity player = args[0].asScriptObjectAssertive(PlayerEntityScriptObject.class).player;
+                player.getItemCooldownManager().remove(self.stack.getItem());
+                return null;
+            })
+            .build();
+
     @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_id", args -> Registries.ITEM.getId(stack.getItem()).toString());
-        set.put("get_count", args -> stack.getCount());
-
-        set.put("get_nbt", args -> new OptionallyExplicitNbtElement(null, stack.getOrCreateNbt()));
-        set.put("set_nbt", args -> {
-            stack.setNbt(BaseValueConversions.mapToCompound((HashMap<AbstractBaseValue<?,?>, AbstractBaseValue<?,?>>) args[0].asMap()));
-            return null;
-        });
-
-        set.put("set_cooldown_ticks", args -> {
-            ServerPlayerEntity player = args[0].asScriptObjectAssertive(PlayerEntityScriptObject.class).player;
-            int ticks = args[1].asInt();
-            player.getItemCooldownManager().set(stack.getItem(), ticks);
-            return null;
-        });
-
-        set.put("get_cooldown_ticks", args -> {
-            ServerPlayerEntity player = args[0].asScriptObjectAssertive(PlayerEntityScriptObject.class).player;
-            return player.getItemCooldownManager().getCooldownProgress(stack.getItem(), 0f);
-        });
-
-        set.put("remove_cooldown", args -> {
-            ServerPlayerEntity player = args[0].asScriptObjectAssertive(PlayerEntityScriptObject.class).player;
-            player.getItemCooldownManager().remove(stack.getItem());
-            return null;
-        });
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
 
@@ -2,8 +2,8 @@ package dev.diamond.luafy.script.api.obj.minecraft;
 
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import dev.diamond.luafy.Luafy;
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.obj.entity.EntityScriptObject;
 import dev.diamond.luafy.script.api.obj.math.Vec3dScriptObject;
 import net.minecraft.entity.Entity;
@@ -17,7 +17,6 @@ import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
-import java.util.HashMap;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -29,80 +28,84 @@ public class WorldScriptObject implements IScriptObject {
         this.world = world;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_blockstate", args -> {
-            Vec3d vec = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-            return new BlockStateScriptObject(world.getBlockState(BlockPos.ofFloored(vec.x, vec.y, vec.z)));
-        });
-        set.put("spawn_entity", args -> {
-            String entityId = args[0].asString();
-            Vec3d pos = args[1].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-            String snbt = null;
-            if (args.length > 2) snbt = args[2].asString();
-
-            NbtCompound nbt = new NbtCompound();
-            if (snbt != null) {
-                try {
-                    nbt = StringNbtReader.parse(snbt);
-                } catch (CommandSyntaxException e) {
-                    Luafy.LOGGER.warn("Could not read SNBT: " + e);
-                    nbt = new NbtCompound();
+    public static final ScriptObjectType<WorldScriptObject> TYPE = ScriptObjectType.builder("world", WorldScriptObject.class)
+            .method("get_blockstate", (self, args) -> {
+                Vec3d vec = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                return new BlockStateScriptObject(self.world.getBlockState(BlockPos.ofFloored(vec.x, vec.y, vec.z)));
+            })
+            .method("spawn_entity", (self, args) -> {
+                String entityId = args[0].asString();
+                Vec3d pos = args[1].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                String snbt = null;
+                if (args.length > 2) snbt = args[2].asString();
+
+                NbtCompound nbt = new NbtCompound();
+                if (snbt != null) {
+                    try {
+                        nbt = StringNbtReader.parse(snbt);
+                    } catch (CommandSyntaxException e) {
+                        Luafy.LOGGER.warn("Could not read SNBT: " + e);
+                        nbt = new NbtCompound();
+                    }
                 }
-            }
 
 
-            var entityType = Registries.ENTITY_TYPE.get(new Identifier(entityId));
+                var entityType = Registries.ENTITY_TYPE.get(new Identifier(entityId));
 
-            Entity e = entityType.create(world);
+                Entity e = entityType.create(self.world);
 
 
-            if (e != null) {
-                NbtCompound store = new NbtCompound();
-                e.writeNbt(store);
+                if (e != null) {
+                    NbtCompound store = new NbtCompound();
+                    e.writeNbt(store);
 
-                for (String s : nbt.getKeys()) {
-                    store.put(s, nbt.get(s));
-                }
+                    for (String s : nbt.getKeys()) {
+                        store.put(s, nbt.get(s));
+                    }
+
+                    // fixme : why broken?
 
-                // fixme : why broken?
+                    e.readNbt(store); // this makes no sense, why do you "read" to set it?? mojank moment
+                    e.setPos(pos.x, pos.y, pos.z);
+                    e.setYaw(0);
+                    e.setPitch(0);
+                    self.world.spawnEntity(e);
 
-                e.readNbt(store); // this makes no sense, why do you "read" to set it?? mojank moment
-                e.setPos(pos.x, pos.y, pos.z);
-                e.setYaw(0);
-                e.setPitch(0);
-                world.spawnEntity(e);
+                    return new EntityScriptObject(e);
+                } else return null;
+            })
 
+            .method("get_entity_from_uuid", (self, args) -> {
+                UUID uuid = UUID.fromString(args[0].asString());
+                var e = self.world.getEntity(uuid);
                 return new EntityScriptObject(e);
-            } else return null;
-        });
-
-        set.put("get_entity_from_uuid", args -> {
-            UUID uuid = UUID.fromString(args[0].asString());
-            var e = world.getEntity(uuid);
-            return new EntityScriptObject(e);
-        });
-        set.put("get_time_of_day", args -> world.getTimeOfDay());
-
-        set.put("play_sound", args -> {
-            Vec3d pos = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
-            Identifier soundId = new Identifier(args[1].asString());
-            String category = args[2].asString();
-            float pitch = args[3].asFloat();
-            float volume = args[4].asFloat();
-
-            SoundEvent sound = Registries.SOUND_EVENT.get(soundId);
-
-            world.playSound(
-                    null,
-                    pos.x, pos.y, pos.z,
-                    sound,
-                    !Objects.equals(category, "") ? SoundCategory.MASTER : SoundCategory.valueOf(category),
-                    volume, pitch
-            );
-
-
-            return null;
-        });
+            })
+            .method("get_time_of_day", (self, args) -> self.world.getTimeOfDay())
+
+            .method("play_sound", (self, args) -> {
+                Vec3d pos = args[0].asScriptObjectAssertive(Vec3dScriptObject.class).get();
+                Identifier soundId = new Identifier(args[1].asString());
+                String category = args[2].asString();
+                float pitch = args[3].asFloat();
+                float volume = args[4].asFloat();
+
+                SoundEvent sound = Registries.SOUND_EVENT.get(soundId);
+
+                self.world.playSound(
+                        null,
+                        pos.x, pos.y, pos.z,
+                        sound,
+                        !Objects.equals(category, "") ? SoundCategory.MASTER : SoundCategory.valueOf(category),
+                        volume, pitch
+                );
+
+
+                return null;
+            })
+            .build();
+
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 }
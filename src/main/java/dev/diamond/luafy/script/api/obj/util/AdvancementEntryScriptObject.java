@@ -1,13 +1,11 @@
 package dev.diamond.luafy.script.api.obj.util;
 
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import net.minecraft.advancement.AdvancementDisplay;
 import net.minecraft.advancement.AdvancementEntry;
 import net.minecraft.util.Identifier;
 
-import java.util.HashMap;
-
 public class AdvancementEntryScriptObject implements IScriptObject {
 
     private final AdvancementEntry entry;
@@ -16,20 +14,24 @@ public class AdvancementEntryScriptObject implements IScriptObject {
         this.entry = entry;
     }
 
-    @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("get_id", args -> entry.id().toString());
+    public static final ScriptObjectType<AdvancementEntryScriptObject> TYPE = ScriptObjectType.builder("advancement_entry", AdvancementEntryScriptObject.class)
+            .method("get_id", (self, args) -> self.entry.id().toString())
 
-        set.put("is_root", args -> entry.value().isRoot());
+            .method("is_root", (self, args) -> self.entry.value().isRoot())
 
-        set.put("has_display", args -> entry.value().display().isPresent());
-        set.put("get_display_frame", args -> entry.value().display().map(c -> c.getFrame().asString()).orElse(null));
-        set.put("get_display_title", args -> entry.value().display().map(c -> c.getTitle().getString()).orElse(null));
-        set.put("get_display_desc", args -> entry.value().display().map(c -> c.getDescription().getString()).orElse(null));
-        set.put("get_display_announces", args -> entry.value().display().map(AdvancementDisplay::shouldAnnounceToChat).orElse(null));
+            .method("has_display", (self, args) -> self.entry.value().display().isPresent())
+            .method("get_display_frame", (self, args) -> self.entry.value().display().map(c -> c.getFrame().asString()).orElse(null))
+            .method("get_display_title", (self, args) -> self.entry.value().display().map(c -> c.getTitle().getString()).orElse(null))
+            .method("get_display_desc", (self, args) -> self.entry.value().display().map(c -> c.getDescription().getString()).orElse(null))
+            .method("get_display_announces", (self, args) -> self.entry.value().display().map(AdvancementDisplay::shouldAnnounceToChat).orElse(null))
 
-        set.put("get_reward_exp", args -> entry.value().rewards().experience());
-        set.put("get_reward_recipes", args -> entry.value().rewards().recipes().stream().map(Identifier::toString).toList());
-        set.put("get_reward_function", args -> entry.value().rewards().function().map(container -> container.getId().toString()).orElse(null));
+            .method("get_reward_exp", (self, args) -> self.entry.value().rewards().experience())
+            .method("get_reward_recipes", (self, args) -> self.entry.value().rewards().recipes().stream().map(Identifier::toString).toList())
+            .method("get_reward_function", (self, args) -> self.entry.value().rewards().function().map(container -> container.getId().toString()).orElse(null))
+            .build();
+
+    @Override
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 }
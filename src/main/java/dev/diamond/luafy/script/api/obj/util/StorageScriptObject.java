@@ -1,17 +1,15 @@
 package dev.diamond.luafy.script.api.obj.util;
 
 import dev.diamond.luafy.script.ScriptManager;
-import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.BaseValueConversions;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.script.api.StorageApi;
 import dev.diamond.luafy.script.nbt.OptionallyExplicitNbtElement;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.util.Identifier;
 
-import java.util.HashMap;
-
 public class StorageScriptObject implements IScriptObject {
 
     private final ServerCommandSource source;
@@ -22,22 +20,28 @@ public class StorageScriptObject implements IScriptObject {
         this.id = id;
     }
 
+    public static final ScriptObjectType<StorageScriptObject> TYPE = ScriptObjectType.builder("storage", StorageScriptObject.class)
+            .method("read", (self, args) ->
+                    new OptionallyExplicitNbtElement(ScriptManager.ExplicitType.get(args[1].asString()), self.get().get(args[0].asString())))
+
+            .method("write", (self, args) -> {
+                var address = args[0];
+                var data = args[1];
+                var type = args.length > 2 ? ScriptManager.ExplicitType.get(args[2].asString()) : null;
+                if (type == null) BaseValueConversions.implicit_putBaseToNbt(self.get(), address.asString(), data);
+                else BaseValueConversions.explicit_putBaseToNbt(self.get(), address.asString(), type, data);
+                return null;
+            })
+
+            .method("has", (self, args) -> {
+                var address = args[0];
+                return self.get().get(address.asString()) != null;
+            })
+            .build();
+
     @Override
-    public void addFunctions(HashMap<String, AdaptableFunction> set) {
-        set.put("read", args ->
-                new OptionallyExplicitNbtElement(ScriptManager.ExplicitType.get(args[1].asString()), get().get(args[0].asString())));
-
-        set.put("write", args -> {
-            var address = args[0];
-            var data = args[1];
-            BaseValueConversions.implicit_putBaseToNbt(get(), address.asString(), data);
-            return null;
-        });
-
-        set.put("has", args -> {
-            var address = args[0];
-            return get().get(address.asString()) != null;
-        });
+    public ScriptObjectType<?> getType() {
+        return TYPE;
     }
 
     private NbtCompound get() {
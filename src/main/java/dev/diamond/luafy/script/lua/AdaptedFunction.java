@@ -0,0 +1,88 @@
+package dev.diamond.luafy.script.lua;
+
+import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.LibFunction;
+
+/**
+ * Exposes an {@link AdaptableFunction} to Lua. <br>
+ *
+ * Calls with up to three arguments take a fixed-arity path that wraps the arguments straight into an array of exactly
+ * that length; longer calls read them out of the {@link Varargs} without copying them into a <code>LuaValue[]</code>
+ * first. Arguments are never padded with nils, so <code>args.length</code> is the number of arguments the script passed.
+ * <br>
+ *
+ * Results that are already Lua values or Java primitives and strings are converted directly; everything else goes
+ * through {@link AbstractBaseValue#adapt(Object)} as before.
+ */
+public class AdaptedFunction extends LibFunction {
+
+    private static final LuaBaseValue[] NO_ARGS = new LuaBaseValue[0];
+
+    private final AdaptableFunction function;
+
+    public AdaptedFunction(AdaptableFunction function) {
+        this.function = function;
+    }
+
+    @Override
+    public LuaValue call() {
+        return toLua(function.call(NO_ARGS));
+    }
+
+    @Override
+    public LuaValue call(LuaValue a) {
+        return toLua(function.call(LuaBaseValue.of(a)));
+    }
+
+    @Override
+    public LuaValue call(LuaValue a, LuaValue b) {
+        return toLua(function.call(LuaBaseValue.of(a), LuaBaseValue.of(b)));
+    }
+
+    @Override
+    public LuaValue call(LuaValue a, LuaValue b, LuaValue c) {
+        return toLua(function.call(LuaBaseValue.of(a), LuaBaseValue.of(b), LuaBaseValue.of(c)));
+    }
+
+    @Override
+    public LuaValue call(LuaValue a, LuaValue b, LuaValue c, LuaValue d) {
+        return toLua(function.call(LuaBaseValue.of(a), LuaBaseValue.of(b), LuaBaseValue.of(c), LuaBaseValue.of(d)));
+    }
+
+    @Override
+    public Varargs invoke(Varargs args) {
+        int n = args.narg();
+        switch (n) {
+            case 0: return call();
+            case 1: return call(args.arg1());
+            case 2: return call(args.arg1(), args.arg(2));
+            case 3: return call(args.arg1(), args.arg(2), args.arg(3));
+        }
+
+        LuaBaseValue[] values = new LuaBaseValue[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = LuaBaseValue.of(args.arg(i + 1));
+        }
+        return toLua(function.call(values));
+    }
+
+
+    public static LuaValue toLua(Object returned) {
+        if (returned == null) return NIL;
+        if (returned instanceof LuaValue lua) return lua;
+        if (returned instanceof LuaBaseValue base) return base.isNull() ? NIL : base.getValue();
+
+        if (returned instanceof Boolean b) return valueOf(b);
+        if (returned instanceof Integer i) return valueOf(i);
+        if (returned instanceof Double d) return valueOf(d);
+        if (returned instanceof Float f) return valueOf(f);
+        if (returned instanceof Long l) return valueOf(l);
+        if (returned instanceof String s) return valueOf(s);
+
+        LuaBaseValue result = LuaBaseValue.of(null).adapt(returned);
+        return result.isNull() ? NIL : result.getValue();
+    }
+}
@@ -1,10 +1,14 @@
 package dev.diamond.luafy.script.lua;
 
+import dev.diamond.luafy.script.ScriptManager;
 import dev.diamond.luafy.script.abstraction.AdaptableFunction;
 import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
 import dev.diamond.luafy.script.abstraction.obj.ScriptObjectProvider;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
 import dev.diamond.luafy.util.HexId;
+import net.minecraft.nbt.NbtElement;
+import org.jetbrains.annotations.Nullable;
 import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
 
@@ -17,10 +21,41 @@ public class LuaBaseValue extends AbstractBaseValue<LuaValue, LuaBaseValue> {
 
     public static final String SCRIPT_OBJ_HEXID_KEY = "__scriptobjhexid";
 
+    private static final int SMALL_INT_MIN = -128;
+    private static final int SMALL_INT_MAX = 1023;
+
+    private static final LuaBaseValue NIL = new LuaBaseValue(LuaValue.NIL);
+    private static final LuaBaseValue TRUE = new LuaBaseValue(LuaValue.TRUE);
+    private static final LuaBaseValue FALSE = new LuaBaseValue(LuaValue.FALSE);
+    private static final LuaBaseValue[] SMALL_INTS = new LuaBaseValue[SMALL_INT_MAX - SMALL_INT_MIN + 1];
+    static {
+        for (int i = 0; i < SMALL_INTS.length; i++) {
+            SMALL_INTS[i] = new LuaBaseValue(LuaValue.valueOf(i + SMALL_INT_MIN));
+        }
+    }
+
+    private LuaValue shapeOf;
+    private LuaTableShape shape;
+
     public LuaBaseValue(LuaValue value) {
         super(value);
     }
 
+    /**
+     * Wraps <code>value</code>, reusing a shared wrapper for nil, booleans and small integers. Wrappers can't be changed
+     * once made, so sharing them is safe.
+     */
+    public static LuaBaseValue of(LuaValue value) {
+        if (value == null || value.isnil()) return NIL;
+        if (value == LuaValue.TRUE) return TRUE;
+        if (value == LuaValue.FALSE) return FALSE;
+        if (value.isinttype()) {
+            int i = value.toint();
+            if (i >= SMALL_INT_MIN && i <= SMALL_INT_MAX) return SMALL_INTS[i - SMALL_INT_MIN];
+        }
+        return new LuaBaseValue(value);
+    }
+
     @Override public String asString() {
         return value.checkjstring();
     }
@@ -44,18 +79,17 @@ public class LuaBaseValue extends AbstractBaseValue<LuaValue, LuaBaseValue> {
     }
     @Override public HashMap<LuaBaseValue, LuaBaseValue> asMap() {
         HashMap<LuaBaseValue, LuaBaseValue> hash = new HashMap<>();
-        LuaTable table = value.checktable();
-        for (int i = 0; i < table.narg(); i++) {
-            hash.put(new LuaBaseValue(table.keys()[i]), new LuaBaseValue(table.get(table.keys()[i])));
-        }
+        LuaTableIterator.forEach(value.checktable(), (k, v) -> hash.put(of(k), of(v)));
 
         return hash;
     }
     @Override public Collection<LuaBaseValue> asCollection() {
-        Collection<LuaBaseValue> collection = new ArrayList<>();
         LuaTable table = value.checktable();
-        for (int i = 0; i < table.length(); i++) {
-            collection.add(new LuaBaseValue(table.get(i + 1)));
+        // reuse the length from classification if this table was already classified
+        int length = shapeOf == value && shape.kind() == LuaTableShape.Kind.ARRAY ? shape.length() : table.length();
+        Collection<LuaBaseValue> collection = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            collection.add(of(table.get(i + 1)));
         }
         return collection;
     }
@@ -64,7 +98,7 @@ public class LuaBaseValue extends AbstractBaseValue<LuaValue, LuaBaseValue> {
         return args -> {
             LuaValue[] values = new LuaValue[args.length];
             for (int i = 0; i < values.length; i++) {
-                values[i] = (LuaValue) args[i].value;
+                values[i] = (LuaValue) args[i].getValue();
             }
             return f.invoke(values);
         };
@@ -93,21 +127,22 @@ public class LuaBaseValue extends AbstractBaseValue<LuaValue, LuaBaseValue> {
         return value.isboolean();
     }
     @Override public boolean isMap() {
-        return value.istable() && !isCollection();
+        return value.istable() && getShape().isMap();
     }
     @Override public boolean isCollection() {
-        if (!value.istable()) return false;
-        else {
-            LuaValue[] keys = value.checktable().keys();
-            boolean allNumbers = true;
-            for (var key : keys) {
-                if (!key.isnumber()) {
-                    allNumbers = false;
-                    break;
-                }
-            }
-            return allNumbers;
+        return value.istable() && getShape().isCollection();
+    }
+
+    /**
+     * Classifies the wrapped table on first use and keeps the result for this wrapper, so converters asking both
+     * {@link #isMap()} and {@link #isCollection()} only scan the table once.
+     */
+    public LuaTableShape getShape() {
+        if (shape == null || shapeOf != value) {
+            shape = LuaTableShape.of(value.checktable());
+            shapeOf = value;
         }
+        return shape;
     }
     @Override public boolean isFunction() {
         return value.isfunction();
@@ -117,30 +152,51 @@ public class LuaBaseValue extends AbstractBaseValue<LuaValue, LuaBaseValue> {
     public LuaBaseValue adaptAbstract(Object obj) {
         try {
             if (obj instanceof LuaValue luaval)
-                return new LuaBaseValue(luaval);
+                return of(luaval);
             else if (obj instanceof HashMap<?, ?> hash)
                 return new LuaBaseValue(LuaTypeConversions.hashToLua(hash, this::adapt));
             else if (obj instanceof Collection<?> collection)
                 return new LuaBaseValue(LuaTypeConversions.collToLua(collection, this::adapt));
             else
-                return new LuaBaseValue(LuaTypeConversions.luaFromObj(obj));
+                return of(LuaTypeConversions.luaFromObj(obj));
         } catch (Exception e) {
             throw new RuntimeException("Could not adapt type " + obj.getClass() + ": " + e);
         }
     }
 
+    @Override
+    protected LuaBaseValue adaptNbt(NbtElement nbt, @Nullable ScriptManager.ExplicitType type) {
+        return of(type == null ? LuaNbtCodec.toLua(nbt) : LuaNbtCodec.toLua(nbt, type));
+    }
+
+    @Override
+    protected LuaBaseValue adaptLazyNbt(@Nullable NbtElement nbt) {
+        return of(nbt == null ? LuaValue.NIL : LuaNbtTable.wrap(nbt));
+    }
+
+    @Override
+    public NbtElement toNbt(@Nullable ScriptManager.ExplicitType type) {
+        LuaValue v = value == null ? LuaValue.NIL : value;
+        return type == null ? LuaNbtCodec.toNbt(v) : LuaNbtCodec.toNbt(v, type);
+    }
+
     @Override
     public LuaBaseValue addObject(ScriptObjectProvider obj) {
+        IScriptObject so = obj.provide();
+
+        // objects with a shared method table only need the object itself
+        ScriptObjectType<?> type = so.getType();
+        if (type != null) return new LuaBaseValue(LuaScriptObjects.wrap(so, type));
+
         LuaTable table = new LuaTable();
         HashMap<String, AdaptableFunction> functions = new HashMap<>();
-        obj.provide().addFunctions(functions);
+        so.addFunctions(functions);
         for (var kvp : functions.entrySet()) {
             table.set(kvp.getKey(), LuaScript.adaptableToArrArg(kvp.getValue()));
         }
 
         // Caching
-        var hexid = HexId.makeNewUnique(IScriptObject.CACHE.keySet());
-        IScriptObject.CACHE.put(hexid, obj.provide());
+        var hexid = IScriptObject.CACHE.add(so);
 
         table.set(SCRIPT_OBJ_HEXID_KEY, hexid.get());
 
@@ -149,14 +205,13 @@ public class LuaBaseValue extends AbstractBaseValue<LuaValue, LuaBaseValue> {
 
     @Override
     public Optional<IScriptObject> asScriptObjectIfPresent() {
+        if (value.isuserdata()) return Optional.ofNullable(LuaScriptObjects.unwrap(value));
         if (!value.istable()) return Optional.empty();
         else {
             if (value.checktable().get(SCRIPT_OBJ_HEXID_KEY) != LuaValue.NIL) {
-                return Optional.of(
-                        HexId.fromString(
-                                value.checktable().get(SCRIPT_OBJ_HEXID_KEY).checkjstring()
-                        ).getHashed(IScriptObject.CACHE)
-                );
+                return Optional.ofNullable(IScriptObject.get(
+                        HexId.fromString(value.checktable().get(SCRIPT_OBJ_HEXID_KEY).checkjstring())
+                ));
             }
         }
         return Optional.empty();
@@ -0,0 +1,161 @@
+package dev.diamond.luafy.script.lua;
+
+import dev.diamond.luafy.Luafy;
+import dev.diamond.luafy.config.LuafyConfig;
+import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.Nullable;
+import org.luaj.vm2.LoadState;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.compiler.DumpState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compiled Lua chunks saved to <code>config/luafy/bytecode_cache</code>, so a restart can undump them instead of
+ * compiling every script from source again. <br>
+ *
+ * Entries are named after the content hash of their source and live in a directory per LuaJ version. Each file starts
+ * with a SHA-256 digest of the dumped chunk; an entry that is truncated, fails that check or can't be undumped is
+ * deleted, and the caller compiles the source and writes it again. <br>
+ *
+ * The cache is shared by every world and datapack, so entries aren't removed just because the current scripts don't use
+ * them. Reading an entry marks it as used, and entries nobody has used for <code>bytecode_disk_cache_max_age_days</code>
+ * are deleted.
+ */
+public class LuaBytecodeDiskCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String EXTENSION = ".luac";
+    private static final int DIGEST_LENGTH = 32;
+
+    private final Path directory = FabricLoader.getInstance().getConfigDir()
+            .resolve("luafy").resolve("bytecode_cache").resolve(Luafy.LUAJ_VER + "-" + FORMAT_VERSION);
+
+    public boolean isEnabled() {
+        return LuafyConfig.GLOBAL_CONFIG.bytecodeDiskCache;
+    }
+
+    /**
+     * @return the cached prototype, or null if there is no usable entry for <code>contentHash</code>.
+     */
+    @Nullable
+    public Prototype read(String contentHash, String chunkName) {
+        Path file = getFile(contentHash);
+        if (!Files.isRegularFile(file)) return null;
+
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length > DIGEST_LENGTH) {
+                byte[] digest = Arrays.copyOfRange(bytes, 0, DIGEST_LENGTH);
+                byte[] chunk = Arrays.copyOfRange(bytes, DIGEST_LENGTH, bytes.length);
+
+                if (MessageDigest.isEqual(digest, sha256(chunk))) {
+                    Prototype prototype = LoadState.undump(new ByteArrayInputStream(chunk), chunkName);
+                    if (prototype != null) {
+                        touch(file);
+                        return prototype;
+                    }
+                }
+            }
+            Luafy.LOGGER.warn("Discarding corrupt cached Lua bytecode {}", file.getFileName());
+        } catch (Exception e) {
+            Luafy.LOGGER.warn("Discarding unreadable cached Lua bytecode {}: {}", file.getFileName(), e.toString());
+        }
+
+        delete(file);
+        return null;
+    }
+
+    public void write(String contentHash, Prototype prototype) {
+        Path file = getFile(contentHash);
+
+        try {
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            DumpState.dump(prototype, chunk, false);
+            byte[] bytes = chunk.toByteArray();
+
+            Files.createDirectories(directory);
+
+            // write next to the entry and move it into place, so a crash never leaves half an entry behind
+            Path temp = Files.createTempFile(directory, contentHash, ".tmp");
+            try {
+                Files.write(temp, sha256(bytes));
+                Files.write(temp, bytes, StandardOpenOption.APPEND);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (Exception e) {
+            Luafy.LOGGER.warn("Could not write Lua bytecode cache entry {}: {}", file.getFileName(), e.toString());
+        }
+    }
+
+    /**
+     * Deletes every entry that hasn't been used for longer than the configured age, unless its hash is in
+     * <code>inUse</code>.
+     */
+    public void prune(Collection<String> inUse) {
+        if (!Files.isDirectory(directory)) return;
+
+        Set<String> keep = new HashSet<>(inUse);
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(Math.max(1, LuafyConfig.GLOBAL_CONFIG.bytecodeDiskCacheMaxAgeDays));
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.endsWith(EXTENSION) && !keep.contains(name.substring(0, name.length() - EXTENSION.length()));
+            }).filter(file -> {
+                try {
+                    return Files.getLastModifiedTime(file).toMillis() < cutoff;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).forEach(LuaBytecodeDiskCache::delete);
+        } catch (IOException e) {
+            Luafy.LOGGER.warn("Could not clean up the Lua bytecode cache: {}", e.toString());
+        }
+    }
+
+
+    private Path getFile(String contentHash) {
+        return directory.resolve(contentHash + EXTENSION);
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // only makes the entry look older than it is
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Luafy.LOGGER.warn("Could not delete Lua bytecode cache entry {}: {}", file.getFileName(), e.toString());
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
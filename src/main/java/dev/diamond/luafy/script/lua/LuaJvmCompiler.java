@@ -0,0 +1,100 @@
+package dev.diamond.luafy.script.lua;
+
+import dev.diamond.luafy.Luafy;
+import org.jetbrains.annotations.Nullable;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaFunction;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.luajc.LuaJC;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns Lua prototypes into JVM classes with LuaJC, so HotSpot can JIT them. <br>
+ *
+ * Generated classes are cached by content hash and shared between Globals; an instance is bound to a Globals the same
+ * way LuaJC does it, through {@link LuaFunction#initupvalue1(LuaValue)}. If a chunk can't be compiled (for example
+ * because BCEL isn't on the classpath), the failure is cached as well and the script keeps using the interpreter.
+ */
+public class LuaJvmCompiler {
+
+    private final ConcurrentHashMap<String, Optional<Class<?>>> classes = new ConcurrentHashMap<>();
+
+    @Nullable
+    public Class<?> get(String contentHash, Prototype prototype) {
+        return classes.computeIfAbsent(contentHash, k -> compile(k, prototype)).orElse(null);
+    }
+
+    public boolean isCompiled(String contentHash) {
+        return classes.containsKey(contentHash);
+    }
+
+    public void retain(Collection<String> contentHashes) {
+        classes.keySet().retainAll(new HashSet<>(contentHashes));
+    }
+
+    /**
+     * @return a new instance of the chunk bound to <code>globals</code>, or null if that failed.
+     */
+    @Nullable
+    public static LuaFunction instantiate(Class<?> chunkClass, Globals globals) {
+        try {
+            LuaFunction f = (LuaFunction) chunkClass.getDeclaredConstructor().newInstance();
+            f.initupvalue1(globals);
+            return f;
+        } catch (Exception e) {
+            Luafy.LOGGER.warn("Could not instantiate compiled Lua chunk {}: {}", chunkClass.getName(), e.toString());
+            return null;
+        }
+    }
+
+
+    private static Optional<Class<?>> compile(String contentHash, Prototype prototype) {
+        // LuaJC names the generated classes after the chunk name; keep it short and free of '$'
+        String chunkName = "luafy_" + contentHash.substring(0, 16);
+
+        try {
+            // hand LuaJC the already compiled prototype instead of letting it parse the source again
+            Globals globals = new Globals();
+            globals.undumper = (stream, name) -> prototype;
+
+            @SuppressWarnings("unchecked")
+            Map<String, byte[]> bytecode = LuaJC.instance.compileAll(
+                    new ByteArrayInputStream(new byte[0]), chunkName, chunkName + ".lua", globals, false);
+
+            BytecodeClassLoader loader = new BytecodeClassLoader(bytecode);
+            for (String className : bytecode.keySet()) {
+                if (!className.contains("$")) return Optional.of(loader.loadClass(className));
+            }
+            throw new IllegalStateException("LuaJC produced no main chunk class");
+        } catch (Throwable e) {
+            Luafy.LOGGER.warn("Could not compile Lua chunk {} to JVM bytecode, it will be interpreted instead: {}", chunkName, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * LuaJC's own loader uses the system class loader as parent, which can't see LuaJ under Fabric.
+     */
+    private static class BytecodeClassLoader extends ClassLoader {
+        private final Map<String, byte[]> bytecode;
+
+        private BytecodeClassLoader(Map<String, byte[]> bytecode) {
+            super(LuaValue.class.getClassLoader());
+            this.bytecode = bytecode;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] b = bytecode.get(name);
+            if (b == null) return super.findClass(name);
+            return defineClass(name, b, 0, b.length);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package dev.diamond.luafy.script.lua;
+
+import dev.diamond.luafy.config.LuafyConfig;
+import dev.diamond.luafy.script.ScriptManager;
+import dev.diamond.luafy.script.abstraction.BaseValueConversions;
+import net.minecraft.nbt.*;
+import org.jetbrains.annotations.Nullable;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+
+import static org.luaj.vm2.LuaValue.NIL;
+
+/**
+ * Converts between NBT and Lua values in one recursive pass, without building the intermediate
+ * {@link dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue} maps and collections that
+ * {@link BaseValueConversions} goes through. <br>
+ *
+ * The results are the same as the generic conversions: every NBT number becomes a Lua number, explicit
+ * <code>BOOL</code> reads give the byte as a number, numbers are written with
+ * {@link BaseValueConversions#numberToNbt(double)} (widened to one type per list), tables with only numeric keys are
+ * written as lists (or typed arrays with <code>nbt_compact_number_lists</code>), and everything else that is a table is
+ * written as a compound.
+ */
+public class LuaNbtCodec {
+
+    private LuaNbtCodec() {}
+
+
+    public static LuaValue toLua(@Nullable NbtElement nbt) {
+        if (nbt == null) return NIL;
+
+        if (nbt instanceof NbtString)
+            return LuaValue.valueOf(nbt.asString());
+        else if (nbt instanceof AbstractNbtNumber number)
+            return LuaValue.valueOf(number.doubleValue());
+        else if (nbt instanceof NbtCompound compound)
+            return compoundToLua(compound);
+        else if (nbt instanceof NbtIntArray array)
+            return intsToLua(array.getIntArray());
+        else if (nbt instanceof NbtLongArray array)
+            return longsToLua(array.getLongArray());
+        else if (nbt instanceof NbtByteArray array)
+            return bytesToLua(array.getByteArray());
+        else if (nbt instanceof AbstractNbtList<?> list)
+            return listToLua(list);
+
+        throw new RuntimeException("Forbidden Nbt Compound Type (" + nbt.getNbtType() + ")");
+    }
+
+    public static LuaValue toLua(@Nullable NbtElement nbt, ScriptManager.ExplicitType type) {
+        if (nbt == null) return NIL;
+
+        return switch (type) {
+            case DOUBLE -> LuaValue.valueOf(((AbstractNbtNumber) nbt).doubleValue());
+            case INT -> LuaValue.valueOf(((AbstractNbtNumber) nbt).intValue());
+            case LONG -> LuaValue.valueOf(((AbstractNbtNumber) nbt).longValue());
+            case STRING -> LuaValue.valueOf(nbt.asString());
+            case BOOLEAN -> LuaValue.valueOf(((NbtByte) nbt).byteValue());
+            case LIST, INT_ARRAY, LONG_ARRAY, BYTE_ARRAY -> toLua(nbt);
+            case OBJECT -> compoundToLua((NbtCompound) nbt);
+        };
+    }
+
+    public static LuaTable compoundToLua(NbtCompound compound) {
+        LuaTable table = new LuaTable(0, compound.getSize());
+        for (String key : compound.getKeys()) {
+            NbtElement element = compound.get(key);
+            if (element != null) table.set(key, toLua(element));
+        }
+        return table;
+    }
+
+    public static LuaTable intsToLua(int[] array) {
+        LuaTable table = new LuaTable(array.length, 0);
+        for (int i = 0; i < array.length; i++) {
+            table.rawset(i + 1, LuaValue.valueOf(array[i]));
+        }
+        return table;
+    }
+
+    public static LuaTable longsToLua(long[] array) {
+        LuaTable table = new LuaTable(array.length, 0);
+        for (int i = 0; i < array.length; i++) {
+            table.rawset(i + 1, LuaValue.valueOf(array[i]));
+        }
+        return table;
+    }
+
+    public static LuaTable bytesToLua(byte[] array) {
+        LuaTable table = new LuaTable(array.length, 0);
+        for (int i = 0; i < array.length; i++) {
+            table.rawset(i + 1, LuaValue.valueOf(array[i]));
+        }
+        return table;
+    }
+
+    public static LuaTable listToLua(AbstractNbtList<?> list) {
+        LuaValue[] values = new LuaValue[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = toLua(list.get(i));
+        }
+        return LuaTable.listOf(values);
+    }
+
+
+    public static NbtElement toNbt(LuaValue value) {
+        if (value instanceof LuaNbtTable view)
+            return view.getNbt().copy();
+        else if (value.isnumber())
+            return BaseValueConversions.numberToNbt(value.checkdouble());
+        else if (value.isboolean())
+            return NbtByte.of(value.checkboolean());
+        else if (value.istable()) {
+            LuaTable table = value.checktable();
+            LuaTableShape shape = LuaTableShape.of(table);
+            if (shape.isMap()) return tableToCompound(table);
+
+            if (LuafyConfig.GLOBAL_CONFIG.nbtCompactNumberLists) {
+                NbtElement compact = tableToCompactArray(table, shape.length());
+                if (compact != null) return compact;
+            }
+            return tableToList(table, shape.length());
+        }
+        else if (value.isstring())
+            return NbtString.of(value.checkjstring());
+
+        throw new RuntimeException("Couldn't convert base value of " + value + " to NBT.");
+    }
+
+    public static NbtElement toNbt(LuaValue value, ScriptManager.ExplicitType type) {
+        if (value instanceof LuaNbtTable view) {
+            NbtElement nbt = view.getNbt();
+            if (type == ScriptManager.ExplicitType.OBJECT && nbt instanceof NbtCompound) return nbt.copy();
+            if (type == ScriptManager.ExplicitType.LIST && nbt instanceof AbstractNbtList<?>) return nbt.copy();
+            if (type == ScriptManager.ExplicitType.INT_ARRAY && nbt instanceof NbtIntArray) return nbt.copy();
+            if (type == ScriptManager.ExplicitType.LONG_ARRAY && nbt instanceof NbtLongArray) return nbt.copy();
+            if (type == ScriptManager.ExplicitType.BYTE_ARRAY && nbt instanceof NbtByteArray) return nbt.copy();
+        }
+
+        return switch (type) {
+            case DOUBLE -> NbtDouble.of(value.checkdouble());
+            case INT -> NbtInt.of(value.checkint());
+            case LONG -> NbtLong.of(value.checklong());
+            case STRING -> NbtString.of(value.checkjstring());
+            case BOOLEAN -> NbtByte.of(value.checkboolean());
+            case OBJECT -> tableToCompound(value.checktable());
+            case LIST -> tableToList(value.checktable(), value.checktable().length());
+            case INT_ARRAY -> tableToIntArray(value.checktable());
+            case LONG_ARRAY -> tableToLongArray(value.checktable());
+            case BYTE_ARRAY -> tableToByteArray(value.checktable());
+        };
+    }
+
+    public static NbtCompound tableToCompound(LuaTable table) {
+        NbtCompound compound = new NbtCompound();
+        LuaTableIterator.forEach(table, (k, v) -> compound.put(k.checkjstring(), toNbt(v)));
+        return compound;
+    }
+
+    public static NbtIntArray tableToIntArray(LuaTable table) {
+        int[] array = new int[table.length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = table.get(i + 1).checkint();
+        }
+        return new NbtIntArray(array);
+    }
+
+    public static NbtLongArray tableToLongArray(LuaTable table) {
+        long[] array = new long[table.length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = table.get(i + 1).checklong();
+        }
+        return new NbtLongArray(array);
+    }
+
+    public static NbtByteArray tableToByteArray(LuaTable table) {
+        byte[] array = new byte[table.length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (byte) table.get(i + 1).checkint();
+        }
+        return new NbtByteArray(array);
+    }
+
+    /**
+     * @return an <code>NbtIntArray</code> or <code>NbtLongArray</code> if every element is a whole number, otherwise null.
+     */
+    @Nullable
+    public static NbtElement tableToCompactArray(LuaTable table, int length) {
+        if (length == 0) return null;
+
+        boolean fitsInt = true;
+        for (int i = 1; i <= length; i++) {
+            LuaValue v = table.get(i);
+            if (v.type() != LuaValue.TNUMBER || !v.islong()) return null;
+            if (!v.isint()) fitsInt = false;
+        }
+
+        return fitsInt ? tableToIntArray(table) : tableToLongArray(table);
+    }
+
+    public static NbtList tableToList(LuaTable table, int length) {
+        NbtList list = new NbtList();
+
+        // every element of an NBT list has the same type, so numbers are all written as the widest one needed
+        if (LuafyConfig.GLOBAL_CONFIG.nbtTypedNumbers && length > 0) {
+            byte type = NbtElement.INT_TYPE;
+            for (int i = 1; i <= length && type != NbtElement.END_TYPE; i++) {
+                LuaValue v = table.get(i);
+                type = v.type() == LuaValue.TNUMBER ? BaseValueConversions.widenNumberType(type, v.todouble()) : NbtElement.END_TYPE;
+            }
+
+            if (type != NbtElement.END_TYPE) {
+                for (int i = 1; i <= length; i++) {
+                    list.add(BaseValueConversions.numberToNbt(table.get(i).todouble(), type));
+                }
+                return list;
+            }
+        }
+
+        for (int i = 1; i <= length; i++) {
+            list.add(toNbt(table.get(i)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,152 @@
+package dev.diamond.luafy.script.lua;
+
+import net.minecraft.nbt.AbstractNbtList;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.OneArgFunction;
+import org.luaj.vm2.lib.ThreeArgFunction;
+import org.luaj.vm2.lib.TwoArgFunction;
+
+import java.util.HashMap;
+
+/**
+ * A read-only Lua view of an {@link NbtCompound} or NBT list that converts entries only when they are read. <br>
+ *
+ * The table itself stays empty; every lookup goes through <code>__index</code> on a metatable shared by all of them,
+ * which converts the entry (nested compounds and lists become views of their own) and remembers the result. Writing
+ * raises an error, <code>#</code> is the list size, and <code>pairs</code> and <code>ipairs</code> walk the underlying
+ * NBT. <code>rawget</code> resolves entries the same way, since the table has no raw entries of its own. <br>
+ *
+ * The view doesn't copy the NBT it is given. An entry is read from the NBT the first time the script asks for it, so
+ * changes made to the NBT before then show up in the view and changes made after don't.
+ */
+public class LuaNbtTable extends LuaTable {
+
+    private static final LuaTable SHARED_METATABLE = new LuaTable();
+    static {
+        SHARED_METATABLE.rawset(INDEX, new TwoArgFunction() {
+            @Override
+            public LuaValue call(LuaValue self, LuaValue key) {
+                return ((LuaNbtTable) self).resolve(key);
+            }
+        });
+        SHARED_METATABLE.rawset(NEWINDEX, new ThreeArgFunction() {
+            @Override
+            public LuaValue call(LuaValue self, LuaValue key, LuaValue value) {
+                return error("NBT tables are read-only");
+            }
+        });
+        SHARED_METATABLE.rawset(LEN, new OneArgFunction() {
+            @Override
+            public LuaValue call(LuaValue self) {
+                return valueOf(((LuaNbtTable) self).size());
+            }
+        });
+        // keeps scripts from getting at (and changing) the metatable every view shares
+        SHARED_METATABLE.rawset(METATABLE, valueOf("nbt"));
+    }
+
+    private final NbtElement nbt;
+    private final HashMap<LuaValue, LuaValue> converted = new HashMap<>();
+
+    private String[] keys;
+    private HashMap<String, Integer> keyIndices;
+
+    private LuaNbtTable(NbtElement nbt) {
+        this.nbt = nbt;
+        setmetatable(SHARED_METATABLE);
+    }
+
+    public static LuaNbtTable of(NbtCompound compound) {
+        return new LuaNbtTable(compound);
+    }
+    public static LuaNbtTable of(AbstractNbtList<?> list) {
+        return new LuaNbtTable(list);
+    }
+
+    /**
+     * @return a view for compounds and lists; any other element is converted right away.
+     */
+    public static LuaValue wrap(NbtElement nbt) {
+        if (nbt instanceof NbtCompound compound) return of(compound);
+        if (nbt instanceof AbstractNbtList<?> list) return of(list);
+        return LuaNbtCodec.toLua(nbt);
+    }
+
+    public NbtElement getNbt() {
+        return nbt;
+    }
+
+
+    private LuaValue resolve(LuaValue key) {
+        LuaValue value = converted.get(key);
+        if (value != null) return value;
+
+        NbtElement element = lookup(key);
+        value = element == null ? NIL : wrap(element);
+        converted.put(key, value);
+        return value;
+    }
+
+    private NbtElement lookup(LuaValue key) {
+        if (nbt instanceof NbtCompound compound) {
+            return key.isstring() ? compound.get(key.tojstring()) : null;
+        }
+
+        AbstractNbtList<?> list = (AbstractNbtList<?>) nbt;
+        if (!key.isinttype()) return null;
+        int i = key.toint();
+        return i >= 1 && i <= list.size() ? list.get(i - 1) : null;
+    }
+
+    private int size() {
+        return nbt instanceof AbstractNbtList<?> list ? list.size() : 0;
+    }
+
+    @Override
+    public LuaValue rawget(int key) {
+        return resolve(valueOf(key));
+    }
+
+    @Override
+    public LuaValue rawget(LuaValue key) {
+        return resolve(key);
+    }
+
+    @Override
+    public Varargs inext(LuaValue key) {
+        // what ipairs calls; the default reads the (empty) array part directly
+        int i = key.checkint() + 1;
+        LuaValue value = resolve(valueOf(i));
+        return value.isnil() ? NONE : varargsOf(valueOf(i), value);
+    }
+
+    @Override
+    public Varargs next(LuaValue key) {
+        if (nbt instanceof AbstractNbtList<?> list) {
+            int i = key.isnil() ? 1 : key.checkint() + 1;
+            if (i > list.size()) return NIL;
+            return varargsOf(valueOf(i), resolve(valueOf(i)));
+        }
+
+        if (keys == null) {
+            keys = ((NbtCompound) nbt).getKeys().toArray(String[]::new);
+            keyIndices = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) keyIndices.put(keys[i], i);
+        }
+
+        int i = 0;
+        if (!key.isnil()) {
+            Integer index = keyIndices.get(key.checkjstring());
+            if (index == null) return error("invalid key to 'next'");
+            i = index + 1;
+        }
+        if (i >= keys.length) return NIL;
+
+        LuaValue k = valueOf(keys[i]);
+        return varargsOf(k, resolve(k));
+    }
+}
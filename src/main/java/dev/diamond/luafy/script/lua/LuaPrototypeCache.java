@@ -0,0 +1,71 @@
+package dev.diamond.luafy.script.lua;
+
+import org.jetbrains.annotations.Nullable;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.compiler.LuaC;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled Lua chunks, keyed by the content hash of their source. <br>
+ *
+ * A {@link Prototype} holds no per-state data, so one can be shared by every {@link org.luaj.vm2.Globals};
+ * binding it to a new Globals is just a new {@link org.luaj.vm2.LuaClosure}. Chunks missing from memory are looked up in
+ * the {@link LuaBytecodeDiskCache} before being compiled from source.
+ */
+public class LuaPrototypeCache {
+
+    private final ConcurrentHashMap<String, Prototype> prototypes = new ConcurrentHashMap<>();
+    @Nullable private final LuaBytecodeDiskCache diskCache;
+
+    public LuaPrototypeCache(@Nullable LuaBytecodeDiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    public Prototype get(String contentHash, String source) {
+        return prototypes.computeIfAbsent(contentHash, k -> load(k, source));
+    }
+
+    public boolean contains(String contentHash) {
+        return prototypes.containsKey(contentHash);
+    }
+
+    /**
+     * Drops every prototype whose hash isn't in <code>contentHashes</code> from memory, and lets the disk cache prune
+     * entries that have gone unused.
+     */
+    public void retain(Collection<String> contentHashes) {
+        prototypes.keySet().retainAll(new HashSet<>(contentHashes));
+        if (diskCache != null && diskCache.isEnabled()) diskCache.prune(contentHashes);
+    }
+
+    public int size() {
+        return prototypes.size();
+    }
+
+    private Prototype load(String contentHash, String source) {
+        if (diskCache == null || !diskCache.isEnabled()) return compile(source);
+
+        Prototype prototype = diskCache.read(contentHash, source);
+        if (prototype == null) {
+            prototype = compile(source);
+            diskCache.write(contentHash, prototype);
+        }
+        return prototype;
+    }
+
+    public static Prototype compile(String source) {
+        try {
+            // chunk name matches what Globals.load(String) used, so error messages look the same
+            return LuaC.instance.compile(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), source);
+        } catch (IOException e) {
+            throw new LuaError("load " + source + ": " + e);
+        }
+    }
+}
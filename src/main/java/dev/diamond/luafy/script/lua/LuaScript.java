@@ -9,9 +9,13 @@ import dev.diamond.luafy.script.registry.lang.ScriptLanguage;
 import dev.diamond.luafy.script.registry.lang.ScriptLanguages;
 import dev.diamond.luafy.script.registry.sandbox.Apis;
 import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaClosure;
+import org.jetbrains.annotations.Nullable;
 import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaFunction;
 import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
 
 import java.util.Arrays;
 
@@ -19,22 +23,30 @@ public class LuaScript extends AbstractScript<LuaBaseValue> {
 
     private final String scriptString;
     public final Globals scriptGlobals;
-    private final LuaValue script;
-
-    public LuaScript(String scriptString) {
+    private final Prototype prototype;
+    private LuaValue script;
+    private boolean jvmCompiled;
+
+    /**
+     * @param jvmChunkClass chunk compiled by {@link LuaJvmCompiler}, or null to interpret the prototype.
+     */
+    public LuaScript(String scriptString, Prototype prototype, @Nullable Class<?> jvmChunkClass) {
         this.scriptString = scriptString;
+        this.prototype = prototype;
 
         this.scriptGlobals = new Globals();
         Apis.applyAbstractSandbox(this);
 
 
-        this.script = this.scriptGlobals.load(scriptString);
+        LuaFunction compiled = jvmChunkClass == null ? null : LuaJvmCompiler.instantiate(jvmChunkClass, this.scriptGlobals);
+        this.jvmCompiled = compiled != null;
+        this.script = jvmCompiled ? compiled : new LuaClosure(prototype, this.scriptGlobals);
     }
 
     @Override
     public LuaBaseValue executeScript() {
         var value = execute();
-        return new LuaBaseValue(value);
+        return LuaBaseValue.of(value);
     }
 
     @Override
@@ -54,7 +66,26 @@ public class LuaScript extends AbstractScript<LuaBaseValue> {
 
     @Override
     public LuaBaseValue getNullBaseValue() {
-        return new LuaBaseValue(null);
+        return LuaBaseValue.of(null);
+    }
+
+    @Override
+    public boolean isJvmCompiled() {
+        return jvmCompiled;
+    }
+
+    @Override
+    public boolean promoteToJvm(String contentHash) {
+        if (jvmCompiled) return true;
+
+        // the compiled chunk is bound to the same globals, so nothing the script stored is lost
+        Class<?> chunkClass = ScriptLanguages.LUA.jvmCompiler.get(contentHash, prototype);
+        LuaFunction compiled = chunkClass == null ? null : LuaJvmCompiler.instantiate(chunkClass, scriptGlobals);
+        if (compiled == null) return false;
+
+        this.script = compiled;
+        this.jvmCompiled = true;
+        return true;
     }
 
     @Override
@@ -72,23 +103,8 @@ public class LuaScript extends AbstractScript<LuaBaseValue> {
         return LuaValue.NIL;
     }
 
-    public static ArrArgFunction adaptableToArrArg(AdaptableFunction adaptableFunction) {
-        return new ArrArgFunction()
-        {
-            @Override
-            public LuaValue call(LuaValue[] params) {
-                LuaBaseValue[] values = new LuaBaseValue[params.length];
-                for (int i = 0; i < params.length; i++) {
-                    values[i] = new LuaBaseValue(params[i]);
-                }
-
-                var returned = adaptableFunction.call(values);
-                LuaBaseValue result = new LuaBaseValue(null);
-                result.adaptAndSetOrThrow(returned);
-
-                return result.isNull() ? LuaValue.NIL : result.getValue();
-            }
-        };
+    public static AdaptedFunction adaptableToArrArg(AdaptableFunction adaptableFunction) {
+        return new AdaptedFunction(adaptableFunction);
     }
 
 }
@@ -1,9 +1,18 @@
 package dev.diamond.luafy.script.lua;
 
 
+import dev.diamond.luafy.script.abstraction.lang.PooledScript;
 import dev.diamond.luafy.script.registry.lang.ScriptLanguage;
+import dev.diamond.luafy.util.LuafyUtil;
+import org.luaj.vm2.Prototype;
+
+import java.util.Collection;
 
 public class LuaScriptLang extends ScriptLanguage<LuaScript> {
+
+    public final LuaPrototypeCache prototypes = new LuaPrototypeCache(new LuaBytecodeDiskCache());
+    public final LuaJvmCompiler jvmCompiler = new LuaJvmCompiler();
+
     @Override
     public String[] getFileExtensions() {
         return new String[] { "lua" };
@@ -11,6 +20,39 @@ public class LuaScriptLang extends ScriptLanguage<LuaScript> {
 
     @Override
     public LuaScript readScript(String scriptCode) {
-        return new LuaScript(scriptCode);
+        return readScript(scriptCode, LuafyUtil.hashContent(scriptCode));
+    }
+
+    @Override
+    public LuaScript readScript(String scriptCode, String contentHash) {
+        return new LuaScript(scriptCode, prototypes.get(contentHash, scriptCode), null);
+    }
+
+    @Override
+    public LuaBaseValue getNullBaseValue() {
+        return LuaBaseValue.of(null);
+    }
+
+    @Override
+    public boolean supportsJvmCompilation() {
+        return true;
+    }
+
+    @Override
+    public LuaScript readJvmCompiledScript(String scriptCode, String contentHash) {
+        Prototype prototype = prototypes.get(contentHash, scriptCode);
+        return new LuaScript(scriptCode, prototype, jvmCompiler.get(contentHash, prototype));
+    }
+
+    @Override
+    public boolean compileToJvm(String scriptCode, String contentHash) {
+        return jvmCompiler.get(contentHash, prototypes.get(contentHash, scriptCode)) != null;
+    }
+
+    @Override
+    public void onScriptsReloaded(Collection<PooledScript> scripts) {
+        var hashes = scripts.stream().filter(s -> s.language == this).map(s -> s.contentHash).toList();
+        prototypes.retain(hashes);
+        jvmCompiler.retain(hashes);
     }
 }
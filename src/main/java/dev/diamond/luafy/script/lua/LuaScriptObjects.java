@@ -0,0 +1,138 @@
+package dev.diamond.luafy.script.lua;
+
+import dev.diamond.luafy.script.abstraction.AdaptableFunction;
+import dev.diamond.luafy.script.abstraction.obj.IScriptObject;
+import dev.diamond.luafy.script.abstraction.obj.ScriptObjectType;
+import org.jetbrains.annotations.Nullable;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaUserdata;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.lib.ThreeArgFunction;
+import org.luaj.vm2.lib.TwoArgFunction;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands script objects that have a {@link ScriptObjectType} to Lua as userdata holding only the object. <br>
+ *
+ * Every type gets one metatable, built the first time an object of that type is wrapped and shared by all of them after
+ * that. Its <code>__index</code> looks the name up in the type and returns the method bound to the object, so
+ * <code>vec.get_x()</code> works the same as it did when every object was a table of functions. Each object remembers
+ * the methods it has handed out, so calling the same method on it again, like an in-place vector operation in a loop,
+ * doesn't allocate. <br>
+ *
+ * Scripts can still set their own fields on an object, like they could on the tables objects used to be; they are kept
+ * per object and looked up before the methods. Unlike those tables, objects are of type <code>userdata</code>, so
+ * <code>type(obj)</code> gives <code>"userdata"</code> and they can't be walked with <code>pairs</code>. <br>
+ *
+ * The type's {@link ScriptObjectType.Operator operators} become the matching arithmetic and <code>__tostring</code>
+ * metamethods. <br>
+ *
+ * These objects never go through the {@link dev.diamond.luafy.script.abstraction.obj.ScriptObjectCache}; how many have
+ * been made is counted here instead, see {@link #getWrappedCount()}.
+ */
+public class LuaScriptObjects {
+
+    private static final Map<ScriptObjectType<?>, LuaTable> METATABLES = new ConcurrentHashMap<>();
+    private static final LongAdder WRAPPED = new LongAdder();
+
+    private LuaScriptObjects() {}
+
+
+    public static LuaUserdata wrap(IScriptObject obj, ScriptObjectType<?> type) {
+        WRAPPED.increment();
+        return new ScriptObjectUserdata(obj, METATABLES.computeIfAbsent(type, LuaScriptObjects::createMetatable));
+    }
+
+    /**
+     * @return how many script objects have been handed to Lua as userdata since the game started.
+     */
+    public static long getWrappedCount() {
+        return WRAPPED.sum();
+    }
+
+    /**
+     * @return the script object held by <code>value</code>, or null if it isn't one made by {@link #wrap}.
+     */
+    @Nullable
+    public static IScriptObject unwrap(LuaValue value) {
+        return value.isuserdata(IScriptObject.class) ? (IScriptObject) value.touserdata() : null;
+    }
+
+    private static LuaTable createMetatable(ScriptObjectType<?> type) {
+        // Lua strings to method indices, so lookups don't decode the key every time
+        String[] methods = type.getMethodNames().toArray(String[]::new);
+        HashMap<LuaValue, Integer> indices = new HashMap<>();
+        for (int i = 0; i < methods.length; i++) {
+            indices.put(LuaValue.valueOf(methods[i]), i);
+        }
+
+        LuaTable metatable = new LuaTable();
+        metatable.rawset(LuaValue.INDEX, new TwoArgFunction() {
+            @Override
+            public LuaValue call(LuaValue self, LuaValue key) {
+                ScriptObjectUserdata userdata = (ScriptObjectUserdata) self;
+                if (userdata.fields != null) {
+                    LuaValue field = userdata.fields.get(key);
+                    if (!field.isnil()) return field;
+                }
+
+                Integer index = indices.get(key);
+                if (index == null) return NIL;
+
+                if (userdata.bound == null) userdata.bound = new LuaValue[methods.length];
+
+                LuaValue bound = userdata.bound[index];
+                if (bound == null) {
+                    AdaptableFunction method = type.bind(methods[index], (IScriptObject) userdata.touserdata());
+                    bound = method == null ? NIL : new AdaptedFunction(method);
+                    userdata.bound[index] = bound;
+                }
+                return bound;
+            }
+        });
+
+        metatable.rawset(LuaValue.NEWINDEX, new ThreeArgFunction() {
+            @Override
+            public LuaValue call(LuaValue self, LuaValue key, LuaValue value) {
+                ScriptObjectUserdata userdata = (ScriptObjectUserdata) self;
+                if (userdata.fields == null) userdata.fields = new LuaTable();
+                userdata.fields.set(key, value);
+                return NIL;
+            }
+        });
+
+        for (ScriptObjectType.Operator operator : type.getOperators()) {
+            metatable.rawset(metamethodOf(operator), new AdaptedFunction(type.getOperator(operator)));
+        }
+
+        // keeps scripts from getting at (and changing) the metatable every object of this type shares
+        metatable.rawset(LuaValue.METATABLE, LuaValue.valueOf(type.getName()));
+        return metatable;
+    }
+
+    private static LuaValue metamethodOf(ScriptObjectType.Operator operator) {
+        return switch (operator) {
+            case ADD -> LuaValue.ADD;
+            case SUB -> LuaValue.SUB;
+            case MUL -> LuaValue.MUL;
+            case DIV -> LuaValue.DIV;
+            case UNM -> LuaValue.UNM;
+            case TO_STRING -> LuaValue.TOSTRING;
+        };
+    }
+
+    private static class ScriptObjectUserdata extends LuaUserdata {
+        // methods bound to this object so far, by index; made on first lookup
+        private LuaValue[] bound;
+        // fields set by the script; made on first write
+        private LuaTable fields;
+
+        private ScriptObjectUserdata(IScriptObject obj, LuaTable metatable) {
+            super(obj, metatable);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dev.diamond.luafy.script.lua;
+
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Walks every entry of a {@link LuaTable}, array part and hash part, in a single pass using {@link LuaTable#next(LuaValue)}.
+ * Unlike {@link LuaTable#keys()}, no array of keys is built up front. <br>
+ *
+ * <pre>{@code
+ * LuaTableIterator it = new LuaTableIterator(table);
+ * while (it.advance()) {
+ *     use(it.key(), it.value());
+ * }
+ * }</pre>
+ *
+ * As with <code>next</code> in Lua, assigning to a key that isn't in the table while iterating is undefined.
+ */
+public class LuaTableIterator {
+
+    private final LuaTable table;
+    private LuaValue key = LuaValue.NIL;
+    private LuaValue value = LuaValue.NIL;
+
+    public LuaTableIterator(LuaTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Moves to the next entry.
+     * @return false once every entry has been visited.
+     */
+    public boolean advance() {
+        Varargs entry = table.next(key);
+        key = entry.arg1();
+        if (key.isnil()) {
+            value = LuaValue.NIL;
+            return false;
+        }
+        value = entry.arg(2);
+        return true;
+    }
+
+    public LuaValue key() {
+        return key;
+    }
+    public LuaValue value() {
+        return value;
+    }
+
+    public static void forEach(LuaTable table, BiConsumer<LuaValue, LuaValue> action) {
+        LuaTableIterator it = new LuaTableIterator(table);
+        while (it.advance()) {
+            action.accept(it.key(), it.value());
+        }
+    }
+}
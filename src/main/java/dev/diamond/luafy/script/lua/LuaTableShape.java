@@ -0,0 +1,47 @@
+package dev.diamond.luafy.script.lua;
+
+import org.luaj.vm2.LuaTable;
+
+/**
+ * What kind of keys a {@link LuaTable} has, worked out in one pass over the table. <br>
+ *
+ * Tables with only numeric keys count as lists, the same as before this was cached; <code>length</code> is the border
+ * Lua's <code>#</code> operator would return for them, and 0 otherwise.
+ */
+public record LuaTableShape(Kind kind, int length) {
+
+    public enum Kind {
+        EMPTY,
+        /** Only numeric keys. */
+        ARRAY,
+        /** No numeric keys. */
+        HASH,
+        /** Both numeric and other keys. */
+        MIXED
+    }
+
+    private static final LuaTableShape EMPTY = new LuaTableShape(Kind.EMPTY, 0);
+
+    public boolean isCollection() {
+        return kind == Kind.EMPTY || kind == Kind.ARRAY;
+    }
+    public boolean isMap() {
+        return !isCollection();
+    }
+
+    public static LuaTableShape of(LuaTable table) {
+        boolean numeric = false;
+        boolean other = false;
+
+        LuaTableIterator it = new LuaTableIterator(table);
+        while (it.advance() && !(numeric && other)) {
+            if (it.key().isnumber()) numeric = true;
+            else other = true;
+        }
+
+        if (numeric && other) return new LuaTableShape(Kind.MIXED, 0);
+        if (other) return new LuaTableShape(Kind.HASH, 0);
+        if (numeric) return new LuaTableShape(Kind.ARRAY, table.length());
+        return EMPTY;
+    }
+}
@@ -8,7 +8,6 @@ import dev.diamond.luafy.Luafy;
 import dev.diamond.luafy.script.abstraction.BaseValueAdapter;
 import dev.diamond.luafy.script.old.LuafyLua;
 import net.minecraft.nbt.*;
-import org.apache.commons.lang3.ArrayUtils;
 import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
 import org.luaj.vm2.Varargs;
@@ -57,11 +56,11 @@ public class LuaTypeConversions {
         else if (type == NbtList.TYPE)
             return tableFromNbtList(((NbtList)nbt));
         else if (type == NbtIntArray.TYPE)
-            return arrToLua(ArrayUtils.toObject(((NbtIntArray)nbt).getIntArray()));
+            return LuaNbtCodec.intsToLua(((NbtIntArray)nbt).getIntArray());
         else if (type == NbtByteArray.TYPE)
-            return arrToLua(ArrayUtils.toObject(((NbtByteArray)nbt).getByteArray()));
+            return LuaNbtCodec.bytesToLua(((NbtByteArray)nbt).getByteArray());
         else if (type == NbtLongArray.TYPE)
-            return arrToLua(ArrayUtils.toObject(((NbtLongArray)nbt).getLongArray()));
+            return LuaNbtCodec.longsToLua(((NbtLongArray)nbt).getLongArray());
 
         else {
             Luafy.LOGGER.error("Forbidden Nbt Compound Type (" + type + ")");
@@ -139,10 +138,7 @@ public class LuaTypeConversions {
     public static NbtCompound tableToNbt(LuaTable table) {
         NbtCompound nbt = new NbtCompound();
 
-        for (LuaValue k : table.keys()) {
-            LuaValue val = table.get(k);
-            implicitNbtPutObject(nbt, k.tojstring(), luaToObj(val));
-        }
+        LuaTableIterator.forEach(table, (k, val) -> implicitNbtPutObject(nbt, k.tojstring(), luaToObj(val)));
 
         return nbt;
     }
@@ -158,6 +154,7 @@ public class LuaTypeConversions {
             case LuaValue.TNUMBER -> lua.checkdouble();
             case LuaValue.TBOOLEAN -> lua.checkboolean();
             case LuaValue.TTABLE -> lua.checktable();
+            case LuaValue.TUSERDATA -> lua.touserdata();
             default -> throw new IllegalStateException("Unexpected value: " + lua.type());
         };
     }
@@ -229,8 +226,8 @@ public class LuaTypeConversions {
         LuaTable table = new LuaTable();
         for (var kvp : hash.entrySet()) {
 
-            var key = (LuaValue) adapter.adapt(kvp.getKey()).value;
-            var value = (LuaValue) adapter.adapt(kvp.getValue()).value;
+            var key = (LuaValue) adapter.adapt(kvp.getKey()).getValue();
+            var value = (LuaValue) adapter.adapt(kvp.getValue()).getValue();
 
             table.set(key, value);
         }
@@ -243,7 +240,7 @@ public class LuaTypeConversions {
         int i = 0;
         for (var e : collection) {
             var element = adapter.adapt(e);
-            arr[i] = (LuaValue) element.value;
+            arr[i] = (LuaValue) element.getValue();
             i++;
         }
         return LuaTable.listOf(arr);
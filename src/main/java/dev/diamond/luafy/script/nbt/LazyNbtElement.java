@@ -0,0 +1,12 @@
+package dev.diamond.luafy.script.nbt;
+
+import net.minecraft.nbt.NbtElement;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * NBT that a script language may hand to scripts as a read-only view, converting entries only as they are read. <br>
+ *
+ * The element isn't copied, so entries that haven't been read yet reflect changes made to it in the meantime.
+ */
+public record LazyNbtElement(@Nullable NbtElement nbt) {
+}
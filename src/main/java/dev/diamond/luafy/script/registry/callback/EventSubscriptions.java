@@ -0,0 +1,77 @@
+package dev.diamond.luafy.script.registry.callback;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The scripts subscribed to each {@link ScriptCallbackEvent}, kept in an array indexed by
+ * {@link ScriptCallbackEvent#getIndex()}. <br>
+ *
+ * Reading is a volatile read and an array lookup with no locking, so the mixins can check
+ * {@link #hasSubscribers(ScriptCallbackEvent)} on every call and skip building a context when nobody is listening.
+ * Changes copy the arrays and publish the new table at once, so a dispatch that's already running keeps the
+ * subscribers it started with.
+ */
+public class EventSubscriptions {
+
+    private static final CallbackEventSubscription[] NONE = new CallbackEventSubscription[0];
+
+    private volatile CallbackEventSubscription[][] table = new CallbackEventSubscription[0][];
+
+    public CallbackEventSubscription[] get(ScriptCallbackEvent event) {
+        CallbackEventSubscription[][] t = table;
+        int i = event.getIndex();
+        return i < t.length ? t[i] : NONE;
+    }
+
+    public boolean hasSubscribers(ScriptCallbackEvent event) {
+        return get(event).length != 0;
+    }
+
+    public synchronized void add(ScriptCallbackEvent event, CallbackEventSubscription subscription) {
+        CallbackEventSubscription[] current = get(event);
+        CallbackEventSubscription[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = subscription;
+        set(event, updated);
+    }
+
+    public synchronized void removeIf(ScriptCallbackEvent event, Predicate<CallbackEventSubscription> filter) {
+        CallbackEventSubscription[] updated = Arrays.stream(get(event)).filter(filter.negate()).toArray(CallbackEventSubscription[]::new);
+        set(event, updated.length == 0 ? NONE : updated);
+    }
+
+    /**
+     * Replaces every subscription with <code>subscriptions</code>, built up front and published in one go, so a dispatch
+     * never sees a partly rebuilt table.
+     */
+    public synchronized void replaceAll(Map<ScriptCallbackEvent, List<CallbackEventSubscription>> subscriptions) {
+        int length = 0;
+        for (ScriptCallbackEvent event : subscriptions.keySet()) {
+            length = Math.max(length, event.getIndex() + 1);
+        }
+
+        CallbackEventSubscription[][] updated = new CallbackEventSubscription[length][];
+        Arrays.fill(updated, NONE);
+        for (var kvp : subscriptions.entrySet()) {
+            if (!kvp.getValue().isEmpty()) updated[kvp.getKey().getIndex()] = kvp.getValue().toArray(CallbackEventSubscription[]::new);
+        }
+        table = updated;
+    }
+
+    public synchronized void clear() {
+        table = new CallbackEventSubscription[0][];
+    }
+
+
+    private void set(ScriptCallbackEvent event, CallbackEventSubscription[] subscriptions) {
+        CallbackEventSubscription[][] t = table;
+        int i = event.getIndex();
+
+        CallbackEventSubscription[][] updated = Arrays.copyOf(t, Math.max(t.length, i + 1));
+        for (int j = t.length; j < updated.length; j++) updated[j] = NONE;
+        updated[i] = subscriptions;
+        table = updated;
+    }
+}
@@ -5,11 +5,23 @@ import net.minecraft.registry.Registry;
 import net.minecraft.util.Identifier;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ScriptCallbackEvent {
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
     private final Identifier id;
+    private final int index;
     public ScriptCallbackEvent(Identifier id) {
         this.id = id;
+        this.index = NEXT_INDEX.getAndIncrement();
+    }
+
+    /**
+     * @return a small number unique to this event, used to keep its subscribers in an array.
+     */
+    public int getIndex() {
+        return index;
     }
     public void register() {
         Registry.register(Luafy.CALLBACK_REGISTRY, this.id, this);
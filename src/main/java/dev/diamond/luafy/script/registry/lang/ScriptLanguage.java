@@ -1,6 +1,10 @@
 package dev.diamond.luafy.script.registry.lang;
 
+import dev.diamond.luafy.script.abstraction.lang.AbstractBaseValue;
 import dev.diamond.luafy.script.abstraction.lang.AbstractScript;
+import dev.diamond.luafy.script.abstraction.lang.PooledScript;
+
+import java.util.Collection;
 
 public abstract class ScriptLanguage<T extends AbstractScript<?>> {
 
@@ -12,4 +16,49 @@ public abstract class ScriptLanguage<T extends AbstractScript<?>> {
     public abstract String[] getFileExtensions();
 
     public abstract T readScript(String scriptCode);
+
+    /**
+     * @return the same value as {@link AbstractScript#getNullBaseValue()}, without needing an instance of a script.
+     */
+    public abstract AbstractBaseValue<?, ?> getNullBaseValue();
+
+    /**
+     * Same as {@link ScriptLanguage#readScript(String)}, for when the content hash of the code is already known.
+     * Languages that cache compiled code should key it on this hash.
+     */
+    public T readScript(String scriptCode, String contentHash) {
+        return readScript(scriptCode);
+    }
+
+    /**
+     * @return true if this language can compile scripts to JVM bytecode through {@link ScriptLanguage#readJvmCompiledScript(String, String)}.
+     */
+    public boolean supportsJvmCompilation() {
+        return false;
+    }
+
+    /**
+     * Reads a script that should run as JVM bytecode. If compiling fails, implementations should fall back to
+     * interpreting it; check {@link AbstractScript#isJvmCompiled()} on the result to find out which one happened.
+     */
+    public T readJvmCompiledScript(String scriptCode, String contentHash) {
+        return readScript(scriptCode, contentHash);
+    }
+
+    /**
+     * Compiles a script to JVM bytecode without making an instance of it, so existing instances can switch over with
+     * {@link AbstractScript#promoteToJvm(String)}.
+     *
+     * @return false if the script can't be compiled and will stay interpreted.
+     */
+    public boolean compileToJvm(String scriptCode, String contentHash) {
+        return false;
+    }
+
+    /**
+     * Called once every script has been (re)loaded; languages can drop cached data for scripts that no longer exist here.
+     *
+     * @param scripts every loaded script, of any language.
+     */
+    public void onScriptsReloaded(Collection<PooledScript> scripts) {}
 }
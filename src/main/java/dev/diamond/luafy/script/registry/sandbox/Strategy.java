@@ -12,6 +12,9 @@ public class Strategy {
     @SerializedName("apis")
     public List<String> apis;
 
+    @SerializedName("compile_to_jvm")
+    public boolean compileToJvm = false;
+
 
     public static Strategy of(boolean blacklist, String... apis) {
         Strategy s = new Strategy();
@@ -0,0 +1,109 @@
+package dev.diamond.luafy.script.threading;
+
+import dev.diamond.luafy.Luafy;
+import dev.diamond.luafy.script.abstraction.ScriptExecution;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single thread that runs queued script executions in submission order. <br>
+ *
+ * The thread blocks on its queue while there is no work, so it costs nothing when idle,
+ * and wakes as soon as something is submitted.
+ */
+public class MasterScriptThread {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final LinkedBlockingQueue<ScriptExecution> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong idleNanos = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+
+    private volatile Thread thread = null;
+    private volatile boolean running = false;
+
+    // Pushed by stop() so a blocked take() wakes up after everything queued before it has run
+    private final ScriptExecution stopMarker = ScriptExecution.of(() -> running = false);
+
+
+    public synchronized void start() {
+        if (thread != null && thread.isAlive()) return;
+
+        running = true;
+        thread = new Thread(null, this::run, "Master Script Thread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Lets every execution queued so far finish, then stops the thread. Waits at most {@value SHUTDOWN_TIMEOUT_MS}ms.
+     */
+    public synchronized void stop() {
+        if (thread == null) return;
+
+        queue.add(stopMarker);
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            Luafy.LOGGER.warn("Master Script Thread did not finish within {}ms; {} execution(s) were dropped.", SHUTDOWN_TIMEOUT_MS, queue.size());
+            thread.interrupt();
+        }
+
+        queue.clear();
+        thread = null;
+    }
+
+    public void submit(ScriptExecution execution) {
+        queue.add(execution);
+    }
+
+
+    private void run() {
+        while (running) {
+            long waitStart = System.nanoTime();
+            ScriptExecution execution;
+            try {
+                execution = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            long runStart = System.nanoTime();
+            idleNanos.addAndGet(runStart - waitStart);
+
+            try {
+                execution.execute();
+            } catch (Exception e) {
+                Luafy.LOGGER.error("Uncaught exception on the Master Script Thread", e);
+            }
+
+            busyNanos.addAndGet(System.nanoTime() - runStart);
+            if (execution != stopMarker) executed.incrementAndGet();
+        }
+    }
+
+
+    // Statistics
+    public boolean isRunning() {
+        return thread != null && thread.isAlive();
+    }
+    public int getQueueDepth() {
+        return queue.size();
+    }
+    public long getExecutedCount() {
+        return executed.get();
+    }
+    public long getIdleMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(idleNanos.get());
+    }
+    public long getBusyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+    }
+}
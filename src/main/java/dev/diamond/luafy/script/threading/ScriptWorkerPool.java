@@ -0,0 +1,168 @@
+package dev.diamond.luafy.script.threading;
+
+import com.google.gson.annotations.SerializedName;
+import dev.diamond.luafy.Luafy;
+import dev.diamond.luafy.config.LuafyConfig;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool used for executions that asked for their own thread, replacing one new {@link Thread} per invocation. <br>
+ *
+ * When the queue is full, new tasks are handled according to {@link OverflowPolicy}.
+ */
+public class ScriptWorkerPool {
+
+    public enum OverflowPolicy {
+        /** Reject the new task; it is counted as rejected. The default. */
+        @SerializedName("drop") DROP,
+        /**
+         * Replace the task that is already queued for the same script with the new one. If there is none, reject. <br>
+         *
+         * Only the script id is compared, not the context it runs with, so the replaced execution is lost even if it was
+         * for another entity or event. Only use this for scripts where just the latest execution matters.
+         */
+        @SerializedName("coalesce") COALESCE
+    }
+
+    private final Map<String, TaskStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, PendingTask> pending = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor = null;
+
+
+    /**
+     * @param scriptId script the task belongs to; used for coalescing and statistics.
+     * @return false if the task was rejected.
+     */
+    public boolean submit(String scriptId, Runnable runnable) {
+        TaskStats s = getStats(scriptId);
+        s.submitted.increment();
+
+        // registered before it can run, so its own removal always finds it
+        PendingTask task = new PendingTask(scriptId, runnable);
+        PendingTask previous = pending.put(scriptId, task);
+        try {
+            getExecutor().execute(task);
+            return true;
+        } catch (RejectedExecutionException ignored) {
+            if (previous != null && previous.isQueued()) pending.replace(scriptId, task, previous);
+            else pending.remove(scriptId, task);
+        }
+
+        if (LuafyConfig.GLOBAL_CONFIG.threadPoolOverflowPolicy == OverflowPolicy.COALESCE) {
+            PendingTask queued = pending.get(scriptId);
+            if (queued != null && queued.replace(runnable)) {
+                s.coalesced.increment();
+                return true;
+            }
+        }
+
+        s.rejected.increment();
+        return false;
+    }
+
+    public TaskStats getStats(String scriptId) {
+        return stats.computeIfAbsent(scriptId, k -> new TaskStats());
+    }
+    public Map<String, TaskStats> getAllStats() {
+        return stats;
+    }
+    public int getQueueDepth() {
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+    public int getActiveCount() {
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    /**
+     * Stops taking tasks and lets the queued ones finish on their own. The next submission starts a new executor from
+     * the current config.
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        pending.clear();
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        int size = Math.max(1, LuafyConfig.GLOBAL_CONFIG.threadPoolSize);
+        int queue = Math.max(1, LuafyConfig.GLOBAL_CONFIG.threadPoolQueueSize);
+
+        if (executor != null && executor.getQueue().remainingCapacity() + executor.getQueue().size() != queue) {
+            // the queue can't be resized, so the old executor drains while a new one takes over
+            executor.shutdown();
+            executor = null;
+        }
+
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            executor = new ThreadPoolExecutor(size, size, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue), r -> {
+                Thread t = new Thread(null, r, "Script Worker #" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            executor.allowCoreThreadTimeOut(true);
+        } else if (executor.getMaximumPoolSize() != size) {
+            // the core size can never be above the maximum, so the order depends on which way it's going
+            if (size > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            } else {
+                executor.setCorePoolSize(size);
+                executor.setMaximumPoolSize(size);
+            }
+        }
+        return executor;
+    }
+
+
+    public static class TaskStats {
+        public final LongAdder submitted = new LongAdder();
+        public final LongAdder completed = new LongAdder();
+        public final LongAdder rejected = new LongAdder();
+        public final LongAdder coalesced = new LongAdder();
+    }
+
+    private class PendingTask implements Runnable {
+        private final String scriptId;
+        private final AtomicReference<Runnable> runnable;
+
+        private PendingTask(String scriptId, Runnable runnable) {
+            this.scriptId = scriptId;
+            this.runnable = new AtomicReference<>(runnable);
+        }
+
+        private boolean isQueued() {
+            return runnable.get() != null;
+        }
+
+        /**
+         * @return false if this task has already started running.
+         */
+        private boolean replace(Runnable newRunnable) {
+            Runnable current = runnable.get();
+            return current != null && runnable.compareAndSet(current, newRunnable);
+        }
+
+        @Override
+        public void run() {
+            pending.remove(scriptId, this);
+            Runnable r = runnable.getAndSet(null);
+            if (r == null) return;
+
+            try {
+                r.run();
+            } catch (Exception e) {
+                Luafy.LOGGER.error("Uncaught exception on a Script Worker running '" + scriptId + "'", e);
+            } finally {
+                getStats(scriptId).completed.increment();
+            }
+        }
+    }
+}
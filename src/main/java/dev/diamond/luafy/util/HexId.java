@@ -1,10 +1,10 @@
 package dev.diamond.luafy.util;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Random;
+import java.security.SecureRandom;
 
 public class HexId {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public final String stringId;
     public final long longId;
 
@@ -26,33 +26,24 @@ public class HexId {
         return stringId;
     }
 
-    public <T> T getHashed(HashMap<HexId, T> hash) {
-        return getHashed(hash, this);
-    }
-    public <T> void removeHashed(HashMap<HexId, T> hash) {
-        removeHashed(hash, this);
-    }
-
-    public static <T> T getHashed(HashMap<HexId, T> hash, HexId key) {
-        for (var v : hash.entrySet()) {
-            if (v.getKey().matches(key)) {
-                return v.getValue();
-            }
-        }
-        return null;
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HexId other && matches(other);
     }
 
-    public static <T> void removeHashed(HashMap<HexId, T> hash, HexId key) {
-        hash.remove(key);
+    @Override
+    public int hashCode() {
+        return Long.hashCode(longId);
     }
 
-
-    public static HexId makeNewUnique(Collection<HexId> others) {
-        HexId id = null;
-        while (id == null || others.stream().anyMatch(id::matches)) {
-            id = makeNew(8);
-        }
-        return id;
+    /**
+     * @return a new random id. Ids are handed to scripts and used to look up handles and entity groups, so they must
+     * not be guessable; callers storing one should draw again if it is already taken.
+     */
+    public static HexId random() {
+        // non-negative, so fromString can read it back
+        long l = RANDOM.nextLong() & Long.MAX_VALUE;
+        return new HexId(Long.toHexString(l), l);
     }
 
     public static HexId fromString(String string) {
@@ -61,11 +52,4 @@ public class HexId {
         return new HexId(string, id);
     }
 
-    private static HexId makeNew(int digits) {
-        long lim = LuafyMath.longpow(16, digits);
-        Random random = new Random();
-        long l = random.nextLong(0, lim);
-        return new HexId(Long.toHexString(l), l);
-    }
-
 }
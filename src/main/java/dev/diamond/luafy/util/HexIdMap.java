@@ -0,0 +1,49 @@
+package dev.diamond.luafy.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * A store keyed by {@link HexId}, backed by a primitive <code>long</code> map so lookups are constant time and don't
+ * box the key. Safe to use from several script threads at once.
+ */
+public class HexIdMap<T> {
+
+    private final Long2ObjectOpenHashMap<T> map = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Stores <code>value</code> under a newly issued id.
+     * @return the id it was stored under.
+     */
+    public synchronized HexId add(T value) {
+        HexId id;
+        do {
+            id = HexId.random();
+        } while (map.containsKey(id.longId));
+        map.put(id.longId, value);
+        return id;
+    }
+
+    public synchronized T get(HexId id) {
+        return map.get(id.longId);
+    }
+
+    public synchronized void put(HexId id, T value) {
+        map.put(id.longId, value);
+    }
+
+    public synchronized T remove(HexId id) {
+        return map.remove(id.longId);
+    }
+
+    public synchronized boolean contains(HexId id) {
+        return map.containsKey(id.longId);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+}
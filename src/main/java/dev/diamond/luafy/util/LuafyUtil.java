@@ -14,9 +14,25 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Optional;
 
 public class LuafyUtil {
+    /**
+     * @return hex SHA-256 of the UTF-8 bytes of <code>content</code>; used to tell whether script sources changed.
+     */
+    public static String hashContent(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static boolean getAndTestPredicate(String predicateId, @NotNull Entity entity) {
         String[] splits = predicateId.split(":");
         Identifier identifier = new Identifier(splits[0], splits[1]);